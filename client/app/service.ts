@@ -11,6 +11,15 @@ export const httpClient = axios.create({
     withCredentials: true,
 })
 
+// Writes carry an idempotency key, so replaying them after a refresh or a network error doesn't apply them twice
+httpClient.interceptors.request.use((config) => {
+    const method = config.method?.toLowerCase()
+    if ((method === 'post' || method === 'patch') && !config.headers['Idempotency-Key']) {
+        config.headers['Idempotency-Key'] = crypto.randomUUID()
+    }
+    return config
+})
+
 httpClient.interceptors.response.use(
     (response) => response,
     async (error) => {
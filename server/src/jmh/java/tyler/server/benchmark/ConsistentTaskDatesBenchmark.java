@@ -0,0 +1,55 @@
+package tyler.server.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.Task;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConsistentTaskDatesBenchmark {
+    @Param({"true", "false"})
+    public boolean consistent;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private TaskRequestDTO request;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        LocalDate today = LocalDate.now();
+        LocalDate dueDate = consistent ? today.plusDays(2) : today.plusDays(9);
+        LocalDate deadline = today.plusDays(7);
+        request = new TaskRequestDTO(null, "Benchmark task", "Validated on every request", dueDate, deadline, 2L);
+        task = Task.builder().name("Benchmark task").priority(Priority.builder().id(2L).name("Medium").xp((byte) 2).build())
+                .dueDate(dueDate).deadline(deadline).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TaskRequestDTO>> validateRequest() {
+        return validator.validate(request);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Task>> validateEntity() {
+        return validator.validate(task);
+    }
+}
@@ -0,0 +1,51 @@
+package tyler.server.benchmark;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.*;
+import tyler.server.config.SecurityConfig;
+import tyler.server.security.JwtSigningKeys;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtSigningBenchmark {
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        SecurityConfig securityConfig = new SecurityConfig(null);
+        JwtSigningKeys keys = new JwtSigningKeys(
+                new JWKSet(JwtSigningKeys.generateKey(JWSAlgorithm.parse(algorithm), "benchmark")), null);
+        encoder = securityConfig.jwtEncoder(keys);
+        decoder = securityConfig.jwtDecoder(keys);
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        Instant now = Instant.now();
+        return encoder.encode(JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .subject("user")
+                .issuedAt(now)
+                .expiresAt(now.plus(15, ChronoUnit.MINUTES))
+                .build()
+        )).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(token);
+    }
+}
@@ -0,0 +1,90 @@
+package tyler.server.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import tyler.server.entity.Priority;
+import tyler.server.entity.Task;
+import tyler.server.entity.User;
+import tyler.server.mapper.TaskMapperImpl;
+import tyler.server.repository.TaskRepository;
+import tyler.server.service.ProgressService;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OffDayRelocationBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int tasks;
+
+    private ProgressService progressService;
+    private User user;
+    private List<Task> relocatedTasks;
+    private List<LocalDate> originalDueDates;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        List<Task> dueOnOffDays = new ArrayList<>();
+        // Stands in for the database, which hands the planner only the open tasks due on a day off
+        TaskRepository taskRepository = (TaskRepository) Proxy.newProxyInstance(
+                TaskRepository.class.getClassLoader(), new Class<?>[]{TaskRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findOpenTasksDueOn")) {
+                        return dueOnOffDays;
+                    }
+                    if (method.getName().equals("findDailyXp")) {
+                        return List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        progressService = new ProgressService(taskRepository, null, new TaskMapperImpl(), event -> {}, new SimpleMeterRegistry());
+
+        user = User.builder().username("relocation").build();
+        LocalDate firstOffDay = today.plusDays(1);
+        user.getDaysOff().add(firstOffDay);
+        user.getDaysOff().add(firstOffDay.plusDays(1));
+        Priority priority = Priority.builder().id(4L).name("Critical").xp((byte) 5).build();
+        relocatedTasks = new ArrayList<>(tasks);
+        originalDueDates = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            // Every other task is due on an off day, every tenth task has two subtasks
+            LocalDate dueDate = i % 2 == 0 ? firstOffDay : today.plusDays(3 + i % 4);
+            Task task = Task.builder().name("Task " + i).priority(priority)
+                    .dueDate(dueDate).deadline(today.plusDays(14 + i % 7)).build();
+            user.addTask(task);
+            relocatedTasks.add(task);
+            originalDueDates.add(dueDate);
+            if (dueDate.equals(firstOffDay)) {
+                dueOnOffDays.add(task);
+            }
+            if (i % 10 == 0) {
+                for (int j = 0; j < 2; j++) {
+                    Task subtask = Task.builder().name("Subtask " + i + "." + j).priority(priority)
+                            .dueDate(dueDate).deadline(task.getDeadline()).build();
+                    task.addSubtask(subtask);
+                    dueOnOffDays.add(subtask);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public User relocateTasksForOffDays() {
+        // The previous invocation moved the due dates, put them back on the off days first
+        for (int i = 0; i < relocatedTasks.size(); i++) {
+            Task task = relocatedTasks.get(i);
+            task.setDueDate(originalDueDates.get(i));
+            for (Task subtask : task.getSubtasks()) {
+                subtask.setDueDate(originalDueDates.get(i));
+            }
+        }
+        progressService.relocateTasksForOffDays(user);
+        return user;
+    }
+}
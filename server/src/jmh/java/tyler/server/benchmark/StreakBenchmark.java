@@ -0,0 +1,47 @@
+package tyler.server.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import tyler.server.entity.Task;
+import tyler.server.entity.User;
+import tyler.server.mapper.TaskMapperImpl;
+import tyler.server.service.ProgressService;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreakBenchmark {
+    @Param({"7", "90", "365"})
+    public int offDayGap;
+
+    private ProgressService progressService;
+    private LocalDate today;
+    private User user;
+    private Task completedTask;
+
+    @Setup
+    public void setUp() {
+        // The streak path never touches the repositories
+        progressService = new ProgressService(null, null, new TaskMapperImpl(), event -> {}, new SimpleMeterRegistry());
+        today = LocalDate.now();
+
+        user = User.builder().username("streak").dailyXpQuota(5).build();
+        for (int i = 1; i < offDayGap; i++) {
+            user.getDaysOff().add(today.minusDays(i));
+        }
+        completedTask = Task.builder().remainingXp((byte) 5).build();
+        user.addTask(completedTask);
+    }
+
+    @Benchmark
+    public User handleTaskCompletionAfterOffDayGap() {
+        user.setLastAchievedDate(today.minusDays(offDayGap));
+        user.setCurrentXp(0);
+        user.setCurrentStreak(3);
+        progressService.handleTaskCompletion(completedTask);
+        return user;
+    }
+}
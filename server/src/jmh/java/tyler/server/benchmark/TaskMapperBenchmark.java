@@ -0,0 +1,54 @@
+package tyler.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tyler.server.dto.task.TaskResponseDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.Task;
+import tyler.server.mapper.TaskMapper;
+import tyler.server.mapper.TaskMapperImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskMapperBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int tasks;
+
+    private final TaskMapper mapper = new TaskMapperImpl();
+    private List<Task> taskList;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        Priority priority = Priority.builder().id(2L).name("Medium").xp((byte) 2).build();
+        taskList = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = Task.builder().id((long) i).name("Task " + i).description("Description of task " + i)
+                    .priority(priority).remainingXp((byte) 2)
+                    .dueDate(i % 3 == 0 ? null : today.plusDays(i % 7)).deadline(today.plusDays(7 + i % 7))
+                    .build();
+            if (i % 5 == 0 && i > 0) {
+                taskList.get(i - 1).addSubtask(task);
+            }
+            taskList.add(task);
+        }
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> toResponseDtoList() {
+        return taskList.stream().map(mapper::toResponseDto).toList();
+    }
+
+    @Benchmark
+    public void toResponseDtoEach(Blackhole blackhole) {
+        for (Task task : taskList) {
+            blackhole.consume(mapper.toResponseDto(task));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package tyler.server.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import tyler.server.entity.Priority;
+import tyler.server.entity.Task;
+import tyler.server.validation.TaskValidator;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskValidatorBenchmark {
+    @Param({"10", "100", "1000"})
+    public int subtasks;
+
+    private final TaskValidator validator = new TaskValidator();
+    private Task parent;
+    private Task newSubtask;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        Priority low = Priority.builder().id(1L).name("Low").xp((byte) 1).build();
+        // Priority xp is a byte, so the parent budget is kept in range by zero-xp subtasks
+        Priority critical = Priority.builder().id(4L).name("Critical").xp((byte) 100).build();
+
+        parent = Task.builder().name("Parent").priority(critical).remainingXp((byte) 100)
+                .dueDate(today.plusDays(5)).deadline(today.plusDays(10)).build();
+        for (int i = 0; i < subtasks; i++) {
+            parent.addSubtask(Task.builder().name("Subtask " + i).priority(low)
+                    .remainingXp((byte) (i < 50 ? 1 : 0))
+                    .dueDate(today.plusDays(1 + i % 5)).deadline(today.plusDays(10)).build());
+        }
+        newSubtask = Task.builder().name("New subtask").priority(low).remainingXp((byte) 1)
+                .parent(parent).dueDate(today.plusDays(2)).deadline(today.plusDays(9)).build();
+    }
+
+    @Benchmark
+    public Task validateParentWithSubtasks() {
+        validator.validate(parent);
+        return parent;
+    }
+
+    @Benchmark
+    public Task validateSubtaskOfWideParent() {
+        validator.validate(newSubtask);
+        return newSubtask;
+    }
+}
@@ -0,0 +1,27 @@
+package tyler.server.loadtest;
+
+enum Endpoint {
+    LOGIN("POST /auth/login", 5),
+    GET_TASKS("GET /tasks", 45),
+    GET_TASK("GET /tasks/{id}", 15),
+    CREATE_TASK("POST /tasks", 15),
+    MARK_DONE("PATCH /tasks/{id}/done", 12),
+    DAY_OFF("POST+DELETE /users/me/day-off", 3),
+    GET_PROFILE("GET /users/me", 5);
+
+    private final String label;
+    private final int weight;
+
+    Endpoint(String label, int weight) {
+        this.label = label;
+        this.weight = weight;
+    }
+
+    String label() {
+        return label;
+    }
+
+    int weight() {
+        return weight;
+    }
+}
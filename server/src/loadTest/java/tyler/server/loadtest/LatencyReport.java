@@ -0,0 +1,64 @@
+package tyler.server.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+class LatencyReport {
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+
+    LatencyReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    void record(Endpoint endpoint, long nanos, boolean success) {
+        latencies.get(endpoint).recordValue(Math.min(nanos, MAX_TRACKABLE_NANOS));
+        if (!success) {
+            errors.get(endpoint).increment();
+        }
+    }
+
+    void print(String title, Duration elapsed, PrintStream out) {
+        double seconds = elapsed.toNanos() / 1e9;
+        long total = 0;
+
+        out.println();
+        out.println("== " + title + " (" + String.format("%.1f", seconds) + " s) ==");
+        out.printf("%-32s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            long count = histogram.getTotalCount();
+            total += count;
+            if (count == 0) {
+                continue;
+            }
+            out.printf("%-32s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.label(),
+                    count,
+                    errors.get(endpoint).sum(),
+                    count / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+        out.printf("%-32s %9d %7s %10.1f%n", "total", total, "", total / seconds);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,132 @@
+package tyler.server.loadtest;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import tyler.server.ServerApplication;
+import tyler.server.security.JwtSigningKeys;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Seeds users with task trees on a fresh server + Postgres container and replays a weighted task-board mix,
+// once per configured thread mode. See the loadTest task in build.gradle for the tunable system properties.
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Path keySet = writeJwtKeySet();
+
+        for (String mode : config.threadModes()) {
+            try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(config.postgresImage())) {
+                postgres.start();
+                try (ConfigurableApplicationContext server = startServer(postgres, keySet, mode.equals("virtual"))) {
+                    int port = ((WebServerApplicationContext) server).getWebServer().getPort();
+                    run(config, mode, URI.create("http://localhost:" + port));
+                }
+            }
+        }
+        Files.deleteIfExists(keySet);
+    }
+
+    private static void run(LoadTestConfig config, String mode, URI baseUri) throws Exception {
+        TaskBoardWorkload workload = new TaskBoardWorkload();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        List<TaskBoardClient> accounts = new ArrayList<>();
+        for (int i = 0; i < config.users(); i++) {
+            accounts.add(new TaskBoardClient(http, baseUri, "loadtest-user-" + i, "loadtest-password"));
+        }
+        long seedStart = System.nanoTime();
+        forEachConcurrently(accounts, account -> workload.seed(account, config.tasksPerUser(), config.subtasksPerTask()));
+        System.out.printf("%nSeeded %d users with %d tasks and %d subtasks each in %.1f s (%s threads)%n",
+                config.users(), config.tasksPerUser(), config.tasksPerUser() * config.subtasksPerTask(),
+                (System.nanoTime() - seedStart) / 1e9, mode);
+
+        List<TaskBoardClient> clients = new ArrayList<>();
+        for (TaskBoardClient account : accounts) {
+            List<TaskBoardClient> sameAccount = account.withSameAccount(config.clientsPerUser() - 1);
+            for (TaskBoardClient client : sameAccount.subList(1, sameAccount.size())) {
+                client.login();
+            }
+            clients.addAll(sameAccount);
+        }
+
+        replay(workload, clients, config.warmup(), new LatencyReport());
+        LatencyReport report = new LatencyReport();
+        Duration elapsed = replay(workload, clients, config.duration(), report);
+        report.print(mode + " threads, " + clients.size() + " concurrent clients", elapsed, System.out);
+    }
+
+    private static Duration replay(TaskBoardWorkload workload, List<TaskBoardClient> clients,
+                                   Duration duration, LatencyReport report) throws Exception {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        forEachConcurrently(clients, client -> {
+            while (System.nanoTime() < end) {
+                Endpoint endpoint = workload.nextEndpoint();
+                long requestStart = System.nanoTime();
+                boolean success;
+                try {
+                    success = workload.execute(endpoint, client);
+                } catch (java.io.IOException e) {
+                    success = false;
+                }
+                report.record(endpoint, System.nanoTime() - requestStart, success);
+            }
+        });
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private static void forEachConcurrently(List<TaskBoardClient> clients, ClientAction action) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (TaskBoardClient client : clients) {
+                futures.add(executor.submit(() -> {
+                    action.run(client);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startServer(PostgreSQLContainer<?> postgres, Path keySet, boolean virtualThreads) {
+        return SpringApplication.run(ServerApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--frontend.url=http://localhost",
+                // The simulated users all come from one address and are meant to saturate the server
+                "--rate-limit.enabled=false",
+                "--jwt.key-set=" + keySet.toUri(),
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"
+        );
+    }
+
+    private static Path writeJwtKeySet() throws Exception {
+        Path keySet = Files.createTempFile("loadtest-jwt", ".json");
+        Files.writeString(keySet, new JWKSet(JwtSigningKeys.generateKey(JWSAlgorithm.ES256, "loadtest")).toString(false));
+        return keySet;
+    }
+
+    @FunctionalInterface
+    private interface ClientAction {
+        void run(TaskBoardClient client) throws Exception;
+    }
+}
@@ -0,0 +1,42 @@
+package tyler.server.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+record LoadTestConfig(
+        int users,
+        int tasksPerUser,
+        int subtasksPerTask,
+        int clientsPerUser,
+        Duration warmup,
+        Duration duration,
+        List<String> threadModes,
+        String postgresImage
+) {
+    static LoadTestConfig fromSystemProperties() {
+        LoadTestConfig config = new LoadTestConfig(
+                Integer.getInteger("loadtest.users", 20),
+                Integer.getInteger("loadtest.tasksPerUser", 50),
+                Integer.getInteger("loadtest.subtasksPerTask", 2),
+                Integer.getInteger("loadtest.clientsPerUser", 1),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60)),
+                Arrays.stream(System.getProperty("loadtest.threads", "platform,virtual").split(","))
+                        .map(String::trim)
+                        .filter(mode -> !mode.isEmpty())
+                        .toList(),
+                System.getProperty("loadtest.postgresImage", "postgres:16.8-alpine3.20")
+        );
+        if (config.subtasksPerTask() > 5) {
+            // Subtasks use the lowest priority (1 xp) and may not exceed the parent's 5 xp
+            throw new IllegalArgumentException("loadtest.subtasksPerTask cannot exceed 5");
+        }
+        for (String mode : config.threadModes()) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown loadtest.threads mode " + mode + ", use platform or virtual");
+            }
+        }
+        return config;
+    }
+}
@@ -0,0 +1,124 @@
+package tyler.server.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class TaskBoardClient {
+    private final HttpClient http;
+    private final URI baseUri;
+    private final String username;
+    private final String password;
+    private final List<Long> openTaskIds = new ArrayList<>();
+    private final List<Long> knownTaskIds = new ArrayList<>();
+    private String cookies = "";
+
+    TaskBoardClient(HttpClient http, URI baseUri, String username, String password) {
+        this.http = http;
+        this.baseUri = baseUri;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * This client and {@code others} more on the same account. The open tasks are dealt out between them, so no
+     * two clients mark the same task as done.
+     */
+    List<TaskBoardClient> withSameAccount(int others) {
+        List<TaskBoardClient> clients = new ArrayList<>(List.of(this));
+        for (int i = 0; i < others; i++) {
+            TaskBoardClient client = new TaskBoardClient(http, baseUri, username, password);
+            client.knownTaskIds.addAll(knownTaskIds);
+            clients.add(client);
+        }
+        List<Long> open = new ArrayList<>(openTaskIds);
+        openTaskIds.clear();
+        for (int i = 0; i < open.size(); i++) {
+            clients.get(i % clients.size()).openTaskIds.add(open.get(i));
+        }
+        return clients;
+    }
+
+    List<Long> openTaskIds() {
+        return openTaskIds;
+    }
+
+    List<Long> knownTaskIds() {
+        return knownTaskIds;
+    }
+
+    int register() throws IOException, InterruptedException {
+        return send(post("/auth/register", credentials())).statusCode();
+    }
+
+    int login() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/auth/login", credentials()));
+        if (response.statusCode() == 200) {
+            // The cookies are marked Secure, so they are forwarded by hand over plain http
+            cookies = response.headers().allValues("Set-Cookie").stream()
+                    .map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+                    .collect(Collectors.joining("; "));
+        }
+        return response.statusCode();
+    }
+
+    Long createTask(Long parentId, long priorityId, LocalDate dueDate, LocalDate deadline) throws IOException, InterruptedException {
+        String body = "{\"parentId\":" + parentId
+                + ",\"name\":\"Task " + System.nanoTime() + "\""
+                + ",\"description\":\"Generated by the load test\""
+                + ",\"dueDate\":" + (dueDate == null ? "null" : "\"" + dueDate + "\"")
+                + ",\"deadline\":\"" + deadline + "\""
+                + ",\"priorityId\":" + priorityId + "}";
+        HttpResponse<String> response = send(post("/tasks", body));
+        if (response.statusCode() != 201) {
+            return null;
+        }
+        String location = response.headers().firstValue("Location").orElseThrow();
+        Long id = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+        knownTaskIds.add(id);
+        return id;
+    }
+
+    int get(String path) throws IOException, InterruptedException {
+        return send(request(path).GET()).statusCode();
+    }
+
+    int patch(String path) throws IOException, InterruptedException {
+        return send(request(path).method("PATCH", HttpRequest.BodyPublishers.noBody())).statusCode();
+    }
+
+    int delete(String path) throws IOException, InterruptedException {
+        return send(request(path).DELETE()).statusCode();
+    }
+
+    int postJson(String path, String body) throws IOException, InterruptedException {
+        return send(post(path, body)).statusCode();
+    }
+
+    private String credentials() {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return request(path).POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json");
+        if (!cookies.isEmpty()) {
+            request.header("Cookie", cookies);
+        }
+        return request;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,98 @@
+package tyler.server.loadtest;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+class TaskBoardWorkload {
+    // Seeded priorities (V10 migration): 1 = Low (1 xp) ... 4 = Critical (5 xp)
+    private static final long LOW_PRIORITY = 1;
+    private static final long CRITICAL_PRIORITY = 4;
+
+    private final int totalWeight;
+
+    TaskBoardWorkload() {
+        int weight = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            weight += endpoint.weight();
+        }
+        this.totalWeight = weight;
+    }
+
+    void seed(TaskBoardClient client, int tasks, int subtasksPerTask) throws IOException, InterruptedException {
+        expect(client.register(), 200, "register");
+        expect(client.login(), 200, "login");
+
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < tasks; i++) {
+            LocalDate dueDate = today.plusDays(1 + i % 6);
+            LocalDate deadline = today.plusDays(7 + i % 7);
+            Long parentId = client.createTask(null, CRITICAL_PRIORITY, dueDate, deadline);
+            if (parentId == null) {
+                throw new IllegalStateException("Seeding a task failed");
+            }
+            client.openTaskIds().add(parentId);
+            for (int j = 0; j < subtasksPerTask; j++) {
+                if (client.createTask(parentId, LOW_PRIORITY, dueDate, deadline) == null) {
+                    throw new IllegalStateException("Seeding a subtask failed");
+                }
+            }
+        }
+    }
+
+    Endpoint nextEndpoint() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : Endpoint.values()) {
+            pick -= endpoint.weight();
+            if (pick < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Endpoint weights are inconsistent");
+    }
+
+    boolean execute(Endpoint endpoint, TaskBoardClient client) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate today = LocalDate.now();
+        return switch (endpoint) {
+            case LOGIN -> client.login() == 200;
+            case GET_TASKS -> client.get("/tasks") == 200;
+            case GET_TASK -> client.get("/tasks/" + pickAny(client.knownTaskIds())) == 200;
+            case GET_PROFILE -> client.get("/users/me") == 200;
+            case CREATE_TASK -> {
+                Long id = client.createTask(null, 1 + random.nextInt(3),
+                        today.plusDays(1 + random.nextInt(6)), today.plusDays(7 + random.nextInt(7)));
+                if (id != null) {
+                    client.openTaskIds().add(id);
+                }
+                yield id != null;
+            }
+            case MARK_DONE -> {
+                List<Long> open = client.openTaskIds();
+                if (open.isEmpty()) {
+                    yield client.get("/tasks") == 200;
+                }
+                Long id = open.remove(random.nextInt(open.size()));
+                yield client.patch("/tasks/" + id + "/done") == 200;
+            }
+            case DAY_OFF -> {
+                // Tomorrow is always within the current week as far as the day-off validation is concerned
+                LocalDate dayOff = today.plusDays(1);
+                boolean set = client.postJson("/users/me/day-off", "\"" + dayOff + "\"") == 204;
+                boolean removed = client.delete("/users/me/day-off?date=" + dayOff) == 204;
+                yield set && removed;
+            }
+        };
+    }
+
+    private static Long pickAny(List<Long> ids) {
+        return ids.isEmpty() ? 0L : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static void expect(int status, int expected, String step) {
+        if (status != expected) {
+            throw new IllegalStateException("Seeding step " + step + " returned " + status);
+        }
+    }
+}
@@ -5,6 +5,7 @@ public class Constants {
 
     public static final int MAX_TASK_NAME_LENGTH = 255;
     public static final int MAX_TASK_DESCRIPTION_LENGTH = 500;
+    public static final int MAX_TASK_BATCH_SIZE = 500;
 
     public static final int MAX_PRIORITY_NAME_LENGTH = 100;
     public static final byte MAX_PRIORITY_XP = 100;
@@ -0,0 +1,35 @@
+package tyler.server.cache;
+
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
+import org.springframework.security.acls.model.AclCache;
+import org.springframework.stereotype.Component;
+import tyler.server.entity.Task;
+
+/**
+ * Task ACLs keyed by task id.
+ */
+@Component
+public class AclCacheInvalidationHandler implements CacheInvalidationHandler {
+    public static final String REGION = "acl";
+
+    private final AclCache aclCache;
+
+    public AclCacheInvalidationHandler(AclCache aclCache) {
+        this.aclCache = aclCache;
+    }
+
+    @Override
+    public String region() {
+        return REGION;
+    }
+
+    @Override
+    public void evict(String key) {
+        aclCache.evictFromCache(new ObjectIdentityImpl(Task.class, Long.valueOf(key)));
+    }
+
+    @Override
+    public void evictAll() {
+        aclCache.clearCache();
+    }
+}
@@ -0,0 +1,194 @@
+package tyler.server.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the per-node caches consistent across nodes. Invalidations are sent with {@code pg_notify} inside the
+ * writing transaction, so Postgres delivers them to the other nodes exactly when (and only if) the transaction
+ * commits; the publishing node evicts its own entries after the commit. Every node listens on one connection of
+ * its pool and hands the keys to the {@link CacheInvalidationHandler} of their region.
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String CHANNEL = "cache_invalidation";
+    // Postgres rejects payloads of 8000 bytes and more
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_MILLIS = 500;
+    private static final long RECONNECT_MILLIS = 5000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, CacheInvalidationHandler> handlers;
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listener;
+
+    public CacheInvalidationBus(DataSource dataSource, JdbcTemplate jdbcTemplate, List<CacheInvalidationHandler> handlers) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.handlers = handlers.stream().collect(Collectors.toMap(CacheInvalidationHandler::region, Function.identity()));
+    }
+
+    public void publish(String region, Object key) {
+        publish(region, List.of(String.valueOf(key)));
+    }
+
+    /**
+     * Evicts the keys on every node once the current transaction commits, or right away outside a transaction.
+     */
+    public void publish(String region, Collection<String> keys) {
+        CacheInvalidationHandler handler = handler(region);
+        if (keys.isEmpty()) {
+            return;
+        }
+        notifyOtherNodes(region, keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(handler::evict);
+                }
+            });
+        } else {
+            keys.forEach(handler::evict);
+        }
+    }
+
+    /**
+     * Evicts the keys on the other nodes only, for caches that keep themselves up to date locally (the Hibernate
+     * second-level cache).
+     */
+    public void notifyOtherNodes(String region, Collection<String> keys) {
+        handler(region);
+        for (String payload : payloads(region, keys)) {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class, CHANNEL, payload);
+        }
+    }
+
+    private CacheInvalidationHandler handler(String region) {
+        CacheInvalidationHandler handler = handlers.get(region);
+        if (handler == null) {
+            throw new IllegalArgumentException("No cache region " + region);
+        }
+        return handler;
+    }
+
+    // One line with the sender and region, then one key per line, split so that every payload fits a notification
+    private List<String> payloads(String region, Collection<String> keys) {
+        String header = nodeId + " " + region;
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(header);
+        int bytes = header.length();
+        for (String key : keys) {
+            int keyBytes = key.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (bytes + keyBytes > MAX_PAYLOAD_BYTES && payload.length() > header.length()) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(header);
+                bytes = header.length();
+            }
+            payload.append('\n').append(key);
+            bytes += keyBytes;
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    private void receive(String payload) {
+        String[] lines = payload.split("\n");
+        String[] header = lines[0].split(" ", 2);
+        if (header.length < 2 || nodeId.equals(header[0])) {
+            return;
+        }
+        CacheInvalidationHandler handler = handlers.get(header[1]);
+        if (handler == null) {
+            log.warn("Ignoring invalidation of unknown cache region {}", header[1]);
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            handler.evict(lines[i]);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Whatever was cached before listening (again) may have missed invalidations
+                handlers.values().forEach(CacheInvalidationHandler::evictAll);
+                listening = true;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the cache invalidation connection, reconnecting in {} ms", RECONNECT_MILLIS, e);
+                try {
+                    Thread.sleep(RECONNECT_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether notifications are being received and the caches have been cleared of what was cached before, entries
+     * cached from now on are evicted by the notifications of other nodes.
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform().name("cache-invalidation").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listening = false;
+        listener.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
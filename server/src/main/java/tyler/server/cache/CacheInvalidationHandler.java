@@ -0,0 +1,16 @@
+package tyler.server.cache;
+
+/**
+ * Evicts the entries of one cache region when another node invalidates them.
+ */
+public interface CacheInvalidationHandler {
+
+    String region();
+
+    void evict(String key);
+
+    /**
+     * Called when invalidations may have been missed, e.g. after the listening connection was lost.
+     */
+    void evictAll();
+}
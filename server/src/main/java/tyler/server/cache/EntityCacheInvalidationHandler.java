@@ -0,0 +1,55 @@
+package tyler.server.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+
+import java.util.List;
+
+/**
+ * Evicts an entity from the second-level cache together with its cached collections and the query results
+ * that may contain it.
+ */
+public class EntityCacheInvalidationHandler implements CacheInvalidationHandler {
+    private final String region;
+    private final Class<?> entityClass;
+    private final List<String> collectionRoles;
+    private final List<String> queryRegions;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EntityCacheInvalidationHandler(String region, Class<?> entityClass, List<String> collectionRoles,
+                                          List<String> queryRegions, EntityManagerFactory entityManagerFactory) {
+        this.region = region;
+        this.entityClass = entityClass;
+        this.collectionRoles = collectionRoles;
+        this.queryRegions = queryRegions;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public String region() {
+        return region;
+    }
+
+    @Override
+    public void evict(String key) {
+        Cache cache = cache();
+        Long id = Long.valueOf(key);
+        cache.evictEntityData(entityClass, id);
+        collectionRoles.forEach(role -> cache.evictCollectionData(role, id));
+        queryRegions.forEach(cache::evictQueryRegion);
+    }
+
+    @Override
+    public void evictAll() {
+        Cache cache = cache();
+        cache.evictEntityData(entityClass);
+        cache.evictNaturalIdData(entityClass);
+        collectionRoles.forEach(cache::evictCollectionData);
+        queryRegions.forEach(cache::evictQueryRegion);
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
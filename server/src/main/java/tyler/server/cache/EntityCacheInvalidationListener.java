@@ -0,0 +1,35 @@
+package tyler.server.cache;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+
+import java.util.List;
+
+/**
+ * Tells the other nodes to drop their second-level cache entry of a changed or deleted entity. Hibernate creates
+ * this listener through Spring while the bus still waits for the entity manager factory, hence the provider.
+ */
+public class EntityCacheInvalidationListener {
+    private final ObjectProvider<CacheInvalidationBus> invalidationBus;
+
+    public EntityCacheInvalidationListener(ObjectProvider<CacheInvalidationBus> invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void entityChanged(Object entity) {
+        switch (entity) {
+            case User user -> notifyOtherNodes(User.CACHE_REGION, user.getId());
+            case Priority priority -> notifyOtherNodes(Priority.CACHE_REGION, priority.getId());
+            default -> throw new IllegalStateException("No cache region for " + entity.getClass().getName());
+        }
+    }
+
+    private void notifyOtherNodes(String region, Long id) {
+        invalidationBus.getObject().notifyOtherNodes(region, List.of(String.valueOf(id)));
+    }
+}
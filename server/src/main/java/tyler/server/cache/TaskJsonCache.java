@@ -0,0 +1,74 @@
+package tyler.server.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tyler.server.dto.task.TaskResponseDTO;
+import tyler.server.event.TaskChangedEvent;
+import tyler.server.mapper.TaskMapper;
+import tyler.server.repository.TaskListRow;
+
+/**
+ * Keeps the serialized response JSON of each task, so listing tasks only serializes the ones that changed.
+ * An entry is only used for the change sequence it was serialized at: the sequence advances with every write
+ * to the task and its subtasks, so writes on other nodes can't leave a stale entry behind. Writes on this node
+ * also drop the entry right away to free the memory.
+ */
+@Component
+public class TaskJsonCache implements MeterBinder {
+    private final Cache<Long, TaskJson> cache;
+    private final TaskMapper taskMapper;
+    private final ObjectWriter writer;
+
+    public TaskJsonCache(TaskMapper taskMapper, ObjectMapper objectMapper,
+                         @Value("${tasks.json-cache.max-size:50000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.taskMapper = taskMapper;
+        this.writer = objectMapper.writerFor(TaskResponseDTO.class);
+    }
+
+    /**
+     * The task as in a response.
+     */
+    public byte[] json(TaskListRow task) {
+        TaskJson cached = cache.getIfPresent(task.id());
+        if (cached != null && cached.changeSeq() == task.changeSeq()) {
+            return cached.json();
+        }
+        byte[] json = serialize(task);
+        cache.put(task.id(), new TaskJson(task.changeSeq(), json));
+        return json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void taskChanged(TaskChangedEvent event) {
+        cache.invalidate(event.taskId());
+    }
+
+    private byte[] serialize(TaskListRow task) {
+        try {
+            return writer.writeValueAsBytes(taskMapper.toResponseDto(task));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize task " + task.id(), e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "tasks.json");
+    }
+
+    private record TaskJson(long changeSeq, byte[] json) {
+    }
+}
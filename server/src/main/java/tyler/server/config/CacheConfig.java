@@ -0,0 +1,30 @@
+package tyler.server.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tyler.server.cache.EntityCacheInvalidationHandler;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+
+import java.util.List;
+
+/**
+ * Invalidation regions for the entities in the Hibernate second-level cache, the regions themselves are
+ * configured in ehcache.xml.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CacheConfig {
+
+    @Bean
+    public EntityCacheInvalidationHandler userCacheInvalidationHandler(EntityManagerFactory entityManagerFactory) {
+        return new EntityCacheInvalidationHandler(User.CACHE_REGION, User.class,
+                List.of(User.class.getName() + ".roles"), List.of(), entityManagerFactory);
+    }
+
+    @Bean
+    public EntityCacheInvalidationHandler priorityCacheInvalidationHandler(EntityManagerFactory entityManagerFactory) {
+        return new EntityCacheInvalidationHandler(Priority.CACHE_REGION, Priority.class,
+                List.of(), List.of(Priority.QUERY_CACHE_REGION), entityManagerFactory);
+    }
+}
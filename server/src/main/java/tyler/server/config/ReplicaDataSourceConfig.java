@@ -0,0 +1,78 @@
+package tyler.server.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import tyler.server.datasource.ReadYourWritesTracker;
+import tyler.server.datasource.ReplicaRoutingDataSource;
+import tyler.server.datasource.ReplicaSet;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the connections of read-only transactions to the read replicas. The data source is wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which only picks the real connection once the transaction has marked
+ * it read-only. ACL lookups made inside a read-only transaction join its connection, so they run on the replica too
+ * and are held back to the primary after the user's writes like every other read. Everything else, including Flyway,
+ * keeps using the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker();
+    }
+
+    @Bean
+    public ReplicaSet replicaSet(@Value("${datasource.replica.urls}") List<String> urls,
+                                 @Value("${datasource.replica.username:${spring.datasource.username}}") String username,
+                                 @Value("${datasource.replica.password:${spring.datasource.password}}") String password,
+                                 @Value("${datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                 @Value("${datasource.replica.read-your-writes-margin:PT1S}") Duration margin,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 Environment environment) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setReadOnly(true);
+            // The application has to start and fall back to the primary while a replica is down
+            pool.setInitializationFailTimeout(-1);
+            replicas.put(pool.getPoolName(), pool);
+        }
+        return new ReplicaSet(replicas, readYourWritesTracker, maxLag, margin);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaSet> replicaSet) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+                    return bean;
+                }
+                LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+                proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicaSet.getObject()));
+                return proxy;
+            }
+        };
+    }
+}
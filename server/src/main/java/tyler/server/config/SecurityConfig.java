@@ -1,18 +1,15 @@
 package tyler.server.config;
 
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.Cookie;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.cache.Cache;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.acls.AclPermissionEvaluator;
@@ -33,21 +30,29 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.converter.RsaKeyConverters;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import tyler.server.metrics.MeteredAclCache;
+import tyler.server.metrics.MeteredLookupStrategy;
+import tyler.server.metrics.MeteredPasswordEncoder;
+import tyler.server.security.AsyncAuditLogger;
+import tyler.server.security.JwtSigningKeys;
+import tyler.server.security.KeySetJwtEncoder;
+import tyler.server.security.KeySetJwtProcessor;
 
 import javax.sql.DataSource;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -55,11 +60,17 @@ import java.util.List;
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
-    @Value("${jwt.public.key}")
-    RSAPublicKey publicKey;
+    @Value("${jwt.public.key:#{null}}")
+    Resource publicKey;
 
-    @Value("${jwt.private.key}")
-    RSAPrivateKey privateKey;
+    @Value("${jwt.private.key:#{null}}")
+    Resource privateKey;
+
+    @Value("${jwt.key-set:#{null}}")
+    Resource keySet;
+
+    @Value("${jwt.active-key-id:#{null}}")
+    String activeKeyId;
 
     @Value("${frontend.url}")
     String frontendUrl;
@@ -78,6 +89,7 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests((authorize) -> authorize
                         .requestMatchers("/auth/**").permitAll()
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer((oauth2) -> oauth2
@@ -90,20 +102,34 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(this.publicKey).build();
+    public JwtSigningKeys jwtSigningKeys() throws IOException, ParseException {
+        if (this.keySet == null) {
+            try (InputStream publicKey = this.publicKey.getInputStream();
+                 InputStream privateKey = this.privateKey.getInputStream()) {
+                return JwtSigningKeys.fromRsaKeyPair(
+                        RsaKeyConverters.x509().convert(publicKey),
+                        RsaKeyConverters.pkcs8().convert(privateKey)
+                );
+            }
+        }
+        try (InputStream keys = this.keySet.getInputStream()) {
+            return JwtSigningKeys.load(keys, this.activeKeyId);
+        }
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JwtSigningKeys signingKeys) {
+        return new NimbusJwtDecoder(new KeySetJwtProcessor(signingKeys));
     }
 
     @Bean
-    public JwtEncoder jwtEncoder() {
-        JWK jwk = new RSAKey.Builder(this.publicKey).privateKey(this.privateKey).build();
-        JWKSource<SecurityContext> jwks = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwks);
+    public JwtEncoder jwtEncoder(JwtSigningKeys signingKeys) {
+        return new KeySetJwtEncoder(signingKeys);
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new MeteredPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -159,16 +185,17 @@ public class SecurityConfig {
     }
 
     @Bean
-    static LookupStrategy lookupStrategy(DataSource dataSource, AclCache cache,
-                                         AclAuthorizationStrategy aclAuthorizationStrategy, PermissionGrantingStrategy permissionGrantingStrategy) {
-        return new BasicLookupStrategy(dataSource, cache, aclAuthorizationStrategy, permissionGrantingStrategy);
+    static MeteredLookupStrategy lookupStrategy(DataSource dataSource, AclCache cache,
+                                                AclAuthorizationStrategy aclAuthorizationStrategy, PermissionGrantingStrategy permissionGrantingStrategy) {
+        return new MeteredLookupStrategy(
+                new BasicLookupStrategy(dataSource, cache, aclAuthorizationStrategy, permissionGrantingStrategy));
     }
 
     @Bean
-    static AclCache aclCache(PermissionGrantingStrategy permissionGrantingStrategy,
-                             AclAuthorizationStrategy aclAuthorizationStrategy) {
+    static MeteredAclCache aclCache(PermissionGrantingStrategy permissionGrantingStrategy,
+                                    AclAuthorizationStrategy aclAuthorizationStrategy) {
         Cache cache = new ConcurrentMapCache("aclCache");
-        return new SpringCacheBasedAclCache(cache, permissionGrantingStrategy, aclAuthorizationStrategy);
+        return new MeteredAclCache(new SpringCacheBasedAclCache(cache, permissionGrantingStrategy, aclAuthorizationStrategy));
     }
 
     @Bean
@@ -177,7 +204,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    static PermissionGrantingStrategy permissionGrantingStrategy() {
-        return new DefaultPermissionGrantingStrategy(new ConsoleAuditLogger());
+    static AsyncAuditLogger auditLogger() {
+        return AsyncAuditLogger.toLog(8192);
+    }
+
+    @Bean
+    static PermissionGrantingStrategy permissionGrantingStrategy(AsyncAuditLogger auditLogger) {
+        return new DefaultPermissionGrantingStrategy(auditLogger);
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package tyler.server.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tyler.server.dto.board.BoardDto;
+import tyler.server.service.BoardService;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/board")
+public class BoardResource {
+    private final BoardService boardService;
+
+    public BoardResource(BoardService boardService) {
+        this.boardService = boardService;
+    }
+
+    @GetMapping
+    public ResponseEntity<BoardDto> getBoard(Principal principal) {
+        return ResponseEntity.ok(boardService.getBoard(principal.getName()));
+    }
+}
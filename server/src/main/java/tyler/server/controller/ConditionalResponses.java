@@ -0,0 +1,46 @@
+package tyler.server.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Supplier;
+
+final class ConditionalResponses {
+    // Lets the browser keep the body but forces revalidation, instead of Spring Security's default no-store
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {}
+
+    /**
+     * Answers 304 when the request's If-None-Match matches the ETag, without computing the body. The version
+     * behind the ETag must be read before the body: a write in between then only causes one extra full response.
+     */
+    static <T> ResponseEntity<T> ok(WebRequest request, String etag, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
+    }
+
+    /**
+     * Like {@link #ok}, for bodies the handler writes itself. The body is only written once the handler has
+     * returned, so it can't be known up front whether writing it succeeds.
+     */
+    static ResponseEntity<StreamingResponseBody> stream(WebRequest request, String etag, MediaType contentType,
+                                                        StreamingResponseBody body) {
+        if (etag == null) {
+            return ResponseEntity.ok().contentType(contentType).body(body);
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).contentType(contentType).body(body);
+    }
+}
@@ -0,0 +1,25 @@
+package tyler.server.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tyler.server.event.UserEventStreams;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/events")
+public class EventResource {
+    private final UserEventStreams userEventStreams;
+
+    public EventResource(UserEventStreams userEventStreams) {
+        this.userEventStreams = userEventStreams;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(Principal principal) {
+        return userEventStreams.open(principal.getName());
+    }
+}
@@ -1,22 +1,36 @@
 package tyler.server.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tyler.server.dto.task.TaskBatchRequestDTO;
+import tyler.server.dto.task.TaskChangesDTO;
+import tyler.server.dto.task.TaskImportResultDTO;
+import tyler.server.dto.task.TaskOperationResultDTO;
 import tyler.server.dto.task.TaskRequestDTO;
 import tyler.server.dto.task.TaskResponseDTO;
 import tyler.server.entity.User;
+import tyler.server.service.TaskBatchService;
 import tyler.server.service.TaskService;
+import tyler.server.service.TaskTransferService;
 
 import java.lang.annotation.Target;
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.security.Principal;
 import java.util.List;
 
 @Target({ElementType.PARAMETER, ElementType.TYPE})
@@ -30,19 +44,44 @@ import java.util.List;
 @Validated
 public class TaskResource {
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskTransferService taskTransferService;
 
-    public TaskResource(TaskService taskService) {
+    public TaskResource(TaskService taskService, TaskBatchService taskBatchService, TaskTransferService taskTransferService) {
         this.taskService = taskService;
+        this.taskBatchService = taskBatchService;
+        this.taskTransferService = taskTransferService;
     }
 
     @GetMapping
-    public ResponseEntity<List<TaskResponseDTO>> getTasks() {
-        return ResponseEntity.ok().body(taskService.getAllTasks());
+    public ResponseEntity<StreamingResponseBody> getTasks(Principal principal, WebRequest request) {
+        String etag = taskService.getTaskListETag(principal.getName());
+        return ConditionalResponses.stream(request, etag, MediaType.APPLICATION_JSON, taskService::writeAllTasks);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesDTO> getChanges(Principal principal, @RequestParam(defaultValue = "0") @PositiveOrZero long since) {
+        return ResponseEntity.ok(taskService.getChanges(principal.getName(), since));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(Principal principal) {
+        String username = principal.getName();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.ndjson\"")
+                .body(out -> taskTransferService.exportTasks(username, out));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<TaskImportResultDTO> importTasks(Principal principal, InputStream body) throws IOException {
+        return ResponseEntity.ok(taskTransferService.importTasks(principal.getName(), body));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable Long id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable Long id, Principal principal, WebRequest request) {
+        String etag = taskService.getTaskETag(principal.getName(), id);
+        return ConditionalResponses.ok(request, etag, () -> taskService.getTaskById(id));
     }
 
     @PostMapping
@@ -58,6 +97,11 @@ public class TaskResource {
         return ResponseEntity.created(location).build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskOperationResultDTO>> applyBatch(@CurrentUser User user, @Valid @RequestBody TaskBatchRequestDTO batch) {
+        return ResponseEntity.ok(taskBatchService.apply(user, batch));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Void> updateTask(@PathVariable Long id, @Valid @RequestBody TaskRequestDTO task) {
         taskService.updateTask(id, task);
@@ -2,8 +2,8 @@ package tyler.server.controller;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tyler.server.dto.user.UserProfileDto;
-import tyler.server.entity.User;
 import tyler.server.mapper.UserMapper;
 import tyler.server.service.UserService;
 import tyler.server.validation.constraints.currentweek.CurrentWeek;
@@ -23,9 +23,10 @@ public class UserResource {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserProfileDto> getUserByUsername(Principal principal) {
-        User user = userService.findByUsername(principal.getName());
-        return ResponseEntity.ok(userMapper.toUserProfileDto(user));
+    public ResponseEntity<UserProfileDto> getUserByUsername(Principal principal, WebRequest request) {
+        String etag = userService.getProfileETag(principal.getName());
+        return ConditionalResponses.ok(request, etag,
+                () -> userMapper.toUserProfileDto(userService.getProfile(principal.getName())));
     }
 
     @PostMapping("/me/day-off")
@@ -0,0 +1,61 @@
+package tyler.server.datasource;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last committed a write, so their reads stay on the primary until a replica
+ * has caught up. Writes without an authenticated user (registration, the midnight jobs) can touch any
+ * user's rows and hold back replica reads for everyone.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile long lastUnattributedWrite;
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        // A failed commit may still have reached the database, so it counts as a write as well
+        if (!transaction.isReadOnly()) {
+            recordWrite(currentUsername());
+        }
+    }
+
+    public void recordWrite(String username) {
+        long now = System.currentTimeMillis();
+        if (username == null) {
+            lastUnattributedWrite = now;
+        } else {
+            lastWrites.put(username, now);
+        }
+    }
+
+    public long millisSinceLastWrite(String username) {
+        long lastWrite = lastUnattributedWrite;
+        if (username != null) {
+            lastWrite = Math.max(lastWrite, lastWrites.getOrDefault(username, 0L));
+        }
+        return System.currentTimeMillis() - lastWrite;
+    }
+
+    public void forgetOlderThan(Duration age) {
+        long cutoff = System.currentTimeMillis() - age.toMillis();
+        lastWrites.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+
+    public static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // Anonymous tokens count as authenticated, but registration and login are nobody's writes yet
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,150 @@
+package tyler.server.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The read replicas with their last probed health and replication lag. A replica serves a user's reads
+ * only while it is healthy, lags less than the allowed maximum and has replayed that user's last write,
+ * i.e. its lag plus a safety margin is shorter than the time since that write.
+ */
+public class ReplicaSet implements MeterBinder, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSet.class);
+
+    // A replica that has replayed everything it received is current, however old its last replayed commit is
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END::bigint""";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesTracker tracker;
+    private final long maxLagMillis;
+    private final long marginMillis;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    public ReplicaSet(Map<String, DataSource> replicas, ReadYourWritesTracker tracker, Duration maxLag, Duration margin) {
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.tracker = tracker;
+        this.maxLagMillis = maxLag.toMillis();
+        this.marginMillis = margin.toMillis();
+    }
+
+    /**
+     * Returns a connection to a replica that may serve the user, or null if the read has to go to the primary.
+     * Each user sticks to one replica so that consecutive reads (and the ETags derived from them) don't go back
+     * in time by switching to a replica that lags further behind.
+     */
+    public Connection getConnection(String username) {
+        long millisSinceLastWrite = tracker.millisSinceLastWrite(username);
+        int start = username == null
+                ? ThreadLocalRandom.current().nextInt(replicas.size())
+                : Math.floorMod(username.hashCode(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy || replica.lagMillis > maxLagMillis
+                    || replica.lagMillis + marginMillis >= millisSinceLastWrite) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                // Stays out of rotation until the next probe reaches it again
+                replica.healthy = false;
+                log.warn("Replica {} is unavailable, reading from the primary", replica.name, e);
+            }
+        }
+        primaryReads.increment();
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.probe-interval:PT2S}")
+    public void probe() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                replica.lagMillis = resultSet.getLong(1);
+                if (!replica.healthy) {
+                    log.info("Replica {} is available again", replica.name);
+                }
+                replica.healthy = true;
+            } catch (SQLException e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} failed its health check", replica.name, e);
+                }
+                replica.healthy = false;
+            }
+        }
+        tracker.forgetOlderThan(Duration.ofMillis(maxLagMillis + marginMillis));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMillis)
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .description("Replication lag at the last probe")
+                    .register(registry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .description("Whether the replica passed its last probe")
+                    .register(registry);
+        }
+        FunctionCounter.builder("datasource.reads", replicaReads, LongAdder::sum)
+                .tag("target", "replica")
+                .description("Read-only connections by the database serving them")
+                .register(registry);
+        FunctionCounter.builder("datasource.reads", primaryReads, LongAdder::sum)
+                .tag("target", "primary")
+                .description("Read-only connections by the database serving them")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // Out of rotation until the first probe has measured the lag
+        private volatile boolean healthy;
+        private volatile long lagMillis;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package tyler.server.dto.board;
+
+import tyler.server.dto.priority.PriorityResponseDto;
+import tyler.server.dto.task.TaskResponseDTO;
+import tyler.server.dto.user.UserProfileDto;
+
+import java.util.List;
+
+/**
+ * Everything the client shows on load: the user's profile, their tasks due this week and the priorities.
+ */
+public record BoardDto(
+        UserProfileDto profile,
+        List<TaskResponseDTO> tasks,
+        List<PriorityResponseDto> priorities
+) {}
@@ -0,0 +1,16 @@
+package tyler.server.dto.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+import static tyler.server.Constants.MAX_TASK_BATCH_SIZE;
+
+public record TaskBatchRequestDTO(
+        @NotEmpty(message = "A batch needs at least one operation")
+        @Size(max = MAX_TASK_BATCH_SIZE, message = "A batch cannot exceed " + MAX_TASK_BATCH_SIZE + " operations")
+        List<@NotNull(message = "Operation cannot be null") @Valid TaskOperationDTO> operations
+) {}
@@ -0,0 +1,9 @@
+package tyler.server.dto.task;
+
+import java.util.List;
+
+public record TaskChangesDTO(
+        long sequence,
+        List<TaskResponseDTO> upserts,
+        List<Long> deleted
+) {}
@@ -0,0 +1,39 @@
+package tyler.server.dto.task;
+
+import jakarta.validation.constraints.*;
+import tyler.server.validation.constraints.consistentdates.ConsistentTaskDates;
+
+import java.time.LocalDate;
+
+import static tyler.server.Constants.*;
+
+/**
+ * One line of a task export. {@code id} and {@code parentId} only link the lines of one file, an import assigns new ids.
+ */
+@ConsistentTaskDates
+public record TaskExportDTO(
+        @NotNull(message = "Task ID is required")
+        Long id,
+
+        Long parentId,
+
+        @NotBlank(message = "Task name cannot be blank")
+        @Size(min = 3, max = MAX_TASK_NAME_LENGTH, message = "Task name must be between 3 and " + MAX_TASK_NAME_LENGTH + " characters")
+        String name,
+
+        @Size(max = MAX_TASK_DESCRIPTION_LENGTH, message = "Description cannot exceed " + MAX_TASK_DESCRIPTION_LENGTH + " characters")
+        String description,
+
+        LocalDate dueDate,
+
+        @NotNull(message = "Deadline is required")
+        LocalDate deadline,
+
+        @NotNull(message = "Priority is required")
+        Long priorityId,
+
+        @Min(value = 0, message = "Remaining xp cannot reach below zero")
+        byte remainingXp,
+
+        boolean done
+) {}
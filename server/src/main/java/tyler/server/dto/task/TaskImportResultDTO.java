@@ -0,0 +1,5 @@
+package tyler.server.dto.task;
+
+public record TaskImportResultDTO(
+        int imported
+) {}
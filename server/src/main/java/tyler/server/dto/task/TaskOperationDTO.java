@@ -0,0 +1,29 @@
+package tyler.server.dto.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One operation of a batch. {@code id} addresses an existing task (update, done, delete), {@code task} carries the
+ * payload (create, update). A create can name itself with {@code ref} so that later creates in the same batch can
+ * attach to it with {@code parentRef}, which is how a task tree is sent in one request.
+ */
+public record TaskOperationDTO(
+        @NotNull(message = "Operation type is required")
+        Type type,
+
+        Long id,
+
+        @Size(max = 100, message = "Reference cannot exceed 100 characters")
+        String ref,
+
+        String parentRef,
+
+        @Valid
+        TaskRequestDTO task
+) {
+    public enum Type {
+        CREATE, UPDATE, DONE, DELETE
+    }
+}
@@ -0,0 +1,7 @@
+package tyler.server.dto.task;
+
+public record TaskOperationErrorDTO(
+        int index,
+        String ref,
+        String message
+) {}
@@ -0,0 +1,8 @@
+package tyler.server.dto.task;
+
+public record TaskOperationResultDTO(
+        int index,
+        TaskOperationDTO.Type type,
+        String ref,
+        Long id
+) {}
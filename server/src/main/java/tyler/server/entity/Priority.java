@@ -6,18 +6,27 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import tyler.server.cache.EntityCacheInvalidationListener;
 
 import static tyler.server.Constants.MAX_PRIORITY_NAME_LENGTH;
 import static tyler.server.Constants.MAX_PRIORITY_XP;
 
 @Entity
 @Table(name = "priority")
+// Priorities practically never change, a reader briefly seeing the old row after a change is acceptable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = Priority.CACHE_REGION)
+@EntityListeners(EntityCacheInvalidationListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
 public class Priority {
+    public static final String CACHE_REGION = "priority";
+    public static final String QUERY_CACHE_REGION = "priorities";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
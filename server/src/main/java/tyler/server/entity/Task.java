@@ -65,6 +65,10 @@ public class Task {
     @Column(name = "done", nullable = false)
     private boolean done;
 
+    // Stamped by the database on every insert and update, see V11__add_change_sequence_to_tasks.sql
+    @Column(name = "change_seq", nullable = false, insertable = false, updatable = false)
+    private long changeSeq;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
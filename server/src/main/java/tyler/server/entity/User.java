@@ -9,8 +9,13 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import tyler.server.cache.EntityCacheInvalidationListener;
 import tyler.server.common.Role;
 import tyler.server.validation.constraints.currentweek.CurrentWeek;
 
@@ -22,16 +27,24 @@ import java.util.*;
         name = "app_user",
         indexes = @Index(name = "user_username_idx", columnList = "username", unique = true)
 )
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.USERNAME_CACHE_REGION)
+@EntityListeners(EntityCacheInvalidationListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
 public class User implements UserDetails {
+    public static final String CACHE_REGION = "user";
+    public static final String ROLES_CACHE_REGION = "user.roles";
+    public static final String USERNAME_CACHE_REGION = "user.username";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
+    @NaturalId
     @Column(name = "username", unique = true, nullable = false)
     @NotNull(message = "Username cannot be null")
     private String username;
@@ -42,6 +55,7 @@ public class User implements UserDetails {
 
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "roles", joinColumns = @JoinColumn(name = "user_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.ROLES_CACHE_REGION)
     @Column(name = "role")
     @Enumerated(EnumType.STRING)
     @Builder.Default
@@ -0,0 +1,21 @@
+package tyler.server.event;
+
+import tyler.server.entity.User;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public record DaysOffChangedEvent(
+        String username,
+        byte daysOffPerWeek,
+        Set<LocalDate> daysOff
+) implements UserEvent {
+    public static DaysOffChangedEvent of(User user) {
+        return new DaysOffChangedEvent(user.getUsername(), user.getDaysOffPerWeek(), Set.copyOf(user.getDaysOff()));
+    }
+
+    @Override
+    public String eventName() {
+        return "days-off";
+    }
+}
@@ -0,0 +1,22 @@
+package tyler.server.event;
+
+import tyler.server.entity.User;
+
+import java.time.LocalDate;
+
+public record ProgressChangedEvent(
+        String username,
+        int currentXp,
+        int currentStreak,
+        LocalDate lastAchievedDate
+) implements UserEvent {
+    public static ProgressChangedEvent of(User user) {
+        return new ProgressChangedEvent(
+                user.getUsername(), user.getCurrentXp(), user.getCurrentStreak(), user.getLastAchievedDate());
+    }
+
+    @Override
+    public String eventName() {
+        return "progress";
+    }
+}
@@ -0,0 +1,21 @@
+package tyler.server.event;
+
+import tyler.server.dto.task.TaskResponseDTO;
+
+public record TaskChangedEvent(
+        String username,
+        Change change,
+        Long taskId,
+        TaskResponseDTO task
+) implements UserEvent {
+    public enum Change { CREATED, UPDATED, DONE, DELETED }
+
+    public static TaskChangedEvent deleted(String username, Long taskId) {
+        return new TaskChangedEvent(username, Change.DELETED, taskId, null);
+    }
+
+    @Override
+    public String eventName() {
+        return "task-" + change.name().toLowerCase();
+    }
+}
@@ -0,0 +1,11 @@
+package tyler.server.event;
+
+/**
+ * A change to one user's data, published by the services and pushed to that user's open event streams
+ * once the surrounding transaction commits.
+ */
+public sealed interface UserEvent permits TaskChangedEvent, ProgressChangedEvent, DaysOffChangedEvent {
+    String username();
+
+    String eventName();
+}
@@ -0,0 +1,153 @@
+package tyler.server.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes user events to the open {@code GET /events} streams. Every stream is written by a virtual thread of its
+ * own, so neither the committing request nor the heartbeat waits for a client. A client that stops reading is
+ * dropped once {@code events.stream.max-pending} events queue up for it, and a user opening more than
+ * {@code events.stream.max-per-user} streams loses the oldest.
+ */
+@Component
+public class UserEventStreams {
+    private static final Logger log = LoggerFactory.getLogger(UserEventStreams.class);
+
+    private final Map<String, List<Stream>> streams = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final int maxPerUser;
+    private final int maxPending;
+
+    public UserEventStreams(@Value("${events.stream.timeout:PT30M}") Duration timeout,
+                            @Value("${events.stream.max-per-user:5}") int maxPerUser,
+                            @Value("${events.stream.max-pending:64}") int maxPending) {
+        this.timeout = timeout;
+        this.maxPerUser = maxPerUser;
+        this.maxPending = maxPending;
+    }
+
+    public SseEmitter open(String username) {
+        Stream stream = new Stream(username, newEmitter(timeout));
+        List<Stream> evicted = new CopyOnWriteArrayList<>();
+        streams.compute(username, (key, userStreams) -> {
+            List<Stream> updated = userStreams == null ? new CopyOnWriteArrayList<>() : userStreams;
+            updated.add(stream);
+            while (updated.size() > maxPerUser) {
+                evicted.add(updated.removeFirst());
+            }
+            return updated;
+        });
+        evicted.forEach(Stream::close);
+        stream.emitter.onCompletion(stream::discard);
+        stream.emitter.onTimeout(stream::discard);
+        stream.emitter.onError(error -> stream.discard());
+        // The response headers only go out with the first write, without it clients wait for the first heartbeat
+        stream.send(SseEmitter.event().comment("connected"));
+        return stream.emitter;
+    }
+
+    protected SseEmitter newEmitter(Duration timeout) {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    // Events raised outside a transaction (e.g. removing a day off) are delivered right away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(UserEvent event) {
+        List<Stream> userStreams = streams.get(event.username());
+        if (userStreams == null) {
+            return;
+        }
+        for (Stream stream : userStreams) {
+            stream.send(SseEmitter.event()
+                    .name(event.eventName())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Keeps idle streams from being closed by proxies and prunes streams of clients that went away
+    @Scheduled(fixedRateString = "${events.stream.heartbeat:PT30S}")
+    public void heartbeat() {
+        streams.values().forEach(userStreams ->
+                userStreams.forEach(stream -> stream.send(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.username, (key, userStreams) -> {
+            userStreams.remove(stream);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    private final class Stream {
+        private final String username;
+        private final SseEmitter emitter;
+        private final ThreadPoolExecutor sender;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Stream(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+            this.sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(maxPending),
+                    Thread.ofVirtual().name("events-" + username).factory());
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                sender.execute(() -> write(event));
+            } catch (RejectedExecutionException e) {
+                if (!sender.isShutdown()) {
+                    log.debug("Dropping event stream of {}: {} events are waiting to be sent", username, maxPending);
+                    close();
+                }
+            }
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping event stream of {}: {}", username, e.getMessage());
+                discard();
+            }
+        }
+
+        // Ends the response once the write in progress, if any, is done, the events still waiting are dropped
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                sender.getQueue().clear();
+                sender.execute(emitter::complete);
+                sender.shutdown();
+            }
+        }
+
+        // For streams the container already ended
+        void discard() {
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                sender.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package tyler.server.exception;
+
+import tyler.server.dto.task.TaskOperationErrorDTO;
+
+import java.util.List;
+
+public class TaskBatchException extends RuntimeException {
+    private final List<TaskOperationErrorDTO> errors;
+
+    public TaskBatchException(List<TaskOperationErrorDTO> errors) {
+        super(errors.size() + " of the batch operations are invalid, nothing was applied");
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<TaskOperationErrorDTO> getErrors() {
+        return errors;
+    }
+}
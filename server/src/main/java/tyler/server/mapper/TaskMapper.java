@@ -6,6 +6,7 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 import tyler.server.entity.Task;
 import tyler.server.dto.task.TaskRequestDTO;
 import tyler.server.dto.task.TaskResponseDTO;
+import tyler.server.repository.TaskListRow;
 
 @Mapper(
     componentModel = "spring",
@@ -19,6 +20,7 @@ public abstract class TaskMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "remainingXp", ignore = true)
+    @Mapping(target = "changeSeq", ignore = true)
     public abstract Task toTask(TaskRequestDTO taskRequestDTO);
 
     @Mapping(target = "subtasks", expression = "java(task.getSubtasks().size())")
@@ -29,4 +31,14 @@ public abstract class TaskMapper {
     @Mapping(target = "id", defaultExpression = "java(0L)")
     @Mapping(target = "parentId", expression = "java(task.getParent() != null ? task.getParent().getId() : null)")
     public abstract TaskResponseDTO toResponseDto(Task task);
-}
\ No newline at end of file
+
+    @Mapping(target = "dueDate", defaultExpression = "java(\"\")")
+    public abstract TaskResponseDTO toResponseDto(TaskListRow row);
+
+    // For tasks whose subtasks were counted instead of loaded
+    @Mapping(target = "subtasks", source = "subtasks")
+    @Mapping(target = "dueDate", source = "task.dueDate", defaultExpression = "java(\"\")")
+    @Mapping(target = "id", source = "task.id", defaultExpression = "java(0L)")
+    @Mapping(target = "parentId", expression = "java(task.getParent() != null ? task.getParent().getId() : null)")
+    public abstract TaskResponseDTO toResponseDto(Task task, int subtasks);
+}
@@ -0,0 +1,78 @@
+package tyler.server.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.acls.model.AclCache;
+import org.springframework.security.acls.model.MutableAcl;
+import org.springframework.security.acls.model.ObjectIdentity;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts hits and misses of the ACL cache. The ACL beans are created before the meter registry,
+ * so the counts are kept locally and published once the registry binds this cache.
+ */
+public class MeteredAclCache implements AclCache, MeterBinder {
+    private final AclCache delegate;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MeteredAclCache(AclCache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public MutableAcl getFromCache(ObjectIdentity objectIdentity) {
+        return record(delegate.getFromCache(objectIdentity));
+    }
+
+    @Override
+    public MutableAcl getFromCache(Serializable pk) {
+        return record(delegate.getFromCache(pk));
+    }
+
+    @Override
+    public void putInCache(MutableAcl acl) {
+        delegate.putInCache(acl);
+    }
+
+    @Override
+    public void evictFromCache(Serializable pk) {
+        evictions.increment();
+        delegate.evictFromCache(pk);
+    }
+
+    @Override
+    public void evictFromCache(ObjectIdentity objectIdentity) {
+        evictions.increment();
+        delegate.evictFromCache(objectIdentity);
+    }
+
+    @Override
+    public void clearCache() {
+        delegate.clearCache();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("acl.cache.gets", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("ACL cache lookups")
+                .register(registry);
+        FunctionCounter.builder("acl.cache.gets", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("ACL cache lookups")
+                .register(registry);
+        FunctionCounter.builder("acl.cache.evictions", evictions, LongAdder::sum)
+                .description("ACL cache evictions")
+                .register(registry);
+    }
+
+    private MutableAcl record(MutableAcl acl) {
+        (acl == null ? misses : hits).increment();
+        return acl;
+    }
+}
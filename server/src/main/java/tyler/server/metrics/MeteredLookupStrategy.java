@@ -0,0 +1,53 @@
+package tyler.server.metrics;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.acls.jdbc.LookupStrategy;
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.Sid;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every ACL lookup of the permission checks. The lookup strategy consults the ACL cache itself, so this is
+ * the total time including cache hits; how many went to the database shows in the misses of {@link MeteredAclCache}.
+ * Like the cache, it is created ahead of the meter registry and publishes its totals when bound.
+ */
+public class MeteredLookupStrategy implements LookupStrategy, MeterBinder {
+    private final LookupStrategy delegate;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder objectIdentities = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public MeteredLookupStrategy(LookupStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Map<ObjectIdentity, Acl> readAclsById(List<ObjectIdentity> objects, List<Sid> sids) {
+        long start = System.nanoTime();
+        try {
+            return delegate.readAclsById(objects, sids);
+        } finally {
+            totalNanos.add(System.nanoTime() - start);
+            lookups.increment();
+            objectIdentities.add(objects.size());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("acl.lookups", this,
+                        strategy -> strategy.lookups.sum(),
+                        strategy -> strategy.totalNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("ACL lookups, cache hits included")
+                .register(registry);
+        registry.more().counter("acl.lookups.object.identities", List.of(), objectIdentities, LongAdder::sum);
+    }
+}
@@ -0,0 +1,5 @@
+package tyler.server.repository;
+
+import java.time.LocalDate;
+
+public record DailyXp(LocalDate day, Long xp) {}
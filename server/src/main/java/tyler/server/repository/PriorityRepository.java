@@ -1,6 +1,9 @@
 package tyler.server.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import tyler.server.entity.Priority;
@@ -10,5 +13,10 @@ import java.util.List;
 @Repository
 public interface PriorityRepository extends CrudRepository<Priority, Long> {
     @Query("select p from Priority p")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Priority.QUERY_CACHE_REGION)
+    })
     List<Priority> findAllPriorities();
 }
@@ -1,5 +1,10 @@
 package tyler.server.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import tyler.server.entity.RefreshToken;
@@ -11,4 +16,12 @@ import java.util.UUID;
 @Repository
 public interface RefreshTokenRepository extends CrudRepository<RefreshToken, UUID> {
     Optional<RefreshToken> findByIdAndExpiresAtAfter(UUID id, Instant now);
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(
+      value = "INSERT INTO refresh_tokens (id, user_id, created_at, expires_at) " +
+              "VALUES (:id, :userId, :createdAt, :expiresAt)",
+      nativeQuery = true
+    )
+    void insert(UUID id, Long userId, Instant createdAt, Instant expiresAt);
 }
@@ -0,0 +1,3 @@
+package tyler.server.repository;
+
+public record SubtaskCount(Long parentId, Long subtasks) {}
@@ -0,0 +1,190 @@
+package tyler.server.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.acls.domain.BasePermission;
+import org.springframework.security.acls.model.Permission;
+import org.springframework.stereotype.Repository;
+import tyler.server.cache.AclCacheInvalidationHandler;
+import tyler.server.cache.CacheInvalidationBus;
+import tyler.server.entity.Task;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based access to the task ACLs for the batch endpoint. {@link org.springframework.security.acls.jdbc.JdbcMutableAclService}
+ * needs several statements per task, here every call is a fixed number of statements regardless of the task count.
+ * The rows written are the same the ACL service writes for a single task: the owner gets read, write and delete.
+ */
+@Repository
+public class TaskAclRepository {
+    private static final String TASK_CLASS = Task.class.getName();
+    private static final List<Permission> OWNER_PERMISSIONS =
+            List.of(BasePermission.READ, BasePermission.WRITE, BasePermission.DELETE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationBus invalidationBus;
+
+    public TaskAclRepository(JdbcTemplate jdbcTemplate, CacheInvalidationBus invalidationBus) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Returns the permission masks granted to the user per task, tasks without any entry are missing from the map.
+     * Task ACLs only ever hold granting entries for the owner, so this matches what the permission evaluator decides.
+     */
+    public Map<Long, Integer> findGrantedMasks(String username, Collection<Long> taskIds) {
+        Map<Long, Integer> masks = new HashMap<>();
+        if (taskIds.isEmpty()) {
+            return masks;
+        }
+        jdbcTemplate.query(
+                "SELECT oi.object_id_identity, e.mask FROM acl_object_identity oi " +
+                "JOIN acl_class c ON c.id = oi.object_id_class " +
+                "JOIN acl_entry e ON e.acl_object_identity = oi.id " +
+                "JOIN acl_sid s ON s.id = e.sid " +
+                "WHERE c.class = ? AND s.principal AND s.sid = ? AND e.granting " +
+                "AND oi.object_id_identity = ANY (?)",
+                ps -> {
+                    ps.setString(1, TASK_CLASS);
+                    ps.setString(2, username);
+                    ps.setArray(3, ps.getConnection().createArrayOf("varchar",
+                            taskIds.stream().map(String::valueOf).toArray()));
+                },
+                rs -> {
+                    masks.merge(Long.valueOf(rs.getString(1)), rs.getInt(2), (a, b) -> a | b);
+                });
+        return masks;
+    }
+
+    public void createOwnerAcls(String username, Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        long sidId = findOrCreateId(
+                "WITH created AS (INSERT INTO acl_sid (principal, sid) VALUES (true, ?) ON CONFLICT DO NOTHING RETURNING id) " +
+                "SELECT id FROM created UNION ALL SELECT id FROM acl_sid WHERE principal AND sid = ?",
+                username);
+        long classId = findOrCreateId(
+                "WITH created AS (INSERT INTO acl_class (class) VALUES (?) ON CONFLICT DO NOTHING RETURNING id) " +
+                "SELECT id FROM created UNION ALL SELECT id FROM acl_class WHERE class = ?",
+                TASK_CLASS);
+
+        List<Long> objectIdentityIds = jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                            "INSERT INTO acl_object_identity (object_id_class, object_id_identity, owner_sid, entries_inheriting) " +
+                            "SELECT ?, identity, ?, true FROM unnest(?::varchar[]) AS identity " +
+                            "RETURNING id");
+                    ps.setLong(1, classId);
+                    ps.setLong(2, sidId);
+                    ps.setArray(3, connection.createArrayOf("varchar", taskIds.stream().map(String::valueOf).toArray()));
+                    return ps;
+                },
+                (rs, rowNum) -> rs.getLong(1));
+
+        jdbcTemplate.update(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                            "INSERT INTO acl_entry (acl_object_identity, ace_order, sid, mask, granting, audit_success, audit_failure) " +
+                            "SELECT oi, ace.ordinality - 1, ?, ace.mask, true, false, false " +
+                            "FROM unnest(?::bigint[]) AS oi CROSS JOIN unnest(?::int[]) WITH ORDINALITY AS ace(mask, ordinality)");
+                    ps.setLong(1, sidId);
+                    ps.setArray(2, connection.createArrayOf("bigint", objectIdentityIds.toArray()));
+                    ps.setArray(3, connection.createArrayOf("integer",
+                            OWNER_PERMISSIONS.stream().map(Permission::getMask).toArray()));
+                    return ps;
+                });
+    }
+
+    /**
+     * Deletes the ACLs of the tasks and all their subtasks, at any depth, and returns the ids of that subtree. Has to
+     * run before the tasks are flushed, the subtree is read from the task table.
+     */
+    public List<Long> deleteAcls(Collection<Long> rootTaskIds) {
+        if (rootTaskIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> subtreeIds = new ArrayList<>();
+        List<ObjectIdentityRow> rows = new ArrayList<>();
+        jdbcTemplate.query(
+                "WITH RECURSIVE subtree AS (" +
+                "SELECT id FROM task WHERE id = ANY (?) " +
+                "UNION ALL SELECT t.id FROM task t JOIN subtree s ON t.parent_id = s.id) " +
+                "SELECT s.id, oi.id, oi.object_id_identity FROM subtree s " +
+                "LEFT JOIN (acl_object_identity oi JOIN acl_class c ON c.id = oi.object_id_class AND c.class = ?) " +
+                "ON oi.object_id_identity = s.id::varchar",
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", rootTaskIds.toArray()));
+                    ps.setString(2, TASK_CLASS);
+                },
+                rs -> {
+                    subtreeIds.add(rs.getLong(1));
+                    // Tasks without an ACL come with nulls
+                    if (rs.getString(3) != null) {
+                        rows.add(new ObjectIdentityRow(rs.getLong(2), rs.getString(3)));
+                    }
+                });
+        delete(rows);
+        return subtreeIds;
+    }
+
+    /**
+     * Deletes up to {@code limit} ACLs whose task no longer exists and returns how many were deleted.
+     */
+    public int deleteOrphanAcls(int limit) {
+        List<ObjectIdentityRow> rows = jdbcTemplate.query(
+                "SELECT oi.id, oi.object_id_identity FROM acl_object_identity oi " +
+                "JOIN acl_class c ON c.id = oi.object_id_class " +
+                "WHERE c.class = ? AND NOT EXISTS (SELECT 1 FROM task t WHERE t.id = oi.object_id_identity::bigint) " +
+                "ORDER BY oi.id LIMIT ?",
+                (rs, rowNum) -> new ObjectIdentityRow(rs.getLong(1), rs.getString(2)),
+                TASK_CLASS, limit);
+        delete(rows);
+        return rows.size();
+    }
+
+    public long countOrphanAcls() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM acl_object_identity oi " +
+                "JOIN acl_class c ON c.id = oi.object_id_class " +
+                "WHERE c.class = ? AND NOT EXISTS (SELECT 1 FROM task t WHERE t.id = oi.object_id_identity::bigint)",
+                Long.class, TASK_CLASS);
+    }
+
+    private void delete(List<ObjectIdentityRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(rows.size());
+        rows.forEach(row -> ids.add(row.id()));
+        jdbcTemplate.update(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                            "DELETE FROM acl_entry WHERE acl_object_identity = ANY (?)");
+                    ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+                    return ps;
+                });
+        jdbcTemplate.update(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                            "DELETE FROM acl_object_identity WHERE id = ANY (?)");
+                    ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+                    return ps;
+                });
+        invalidationBus.publish(AclCacheInvalidationHandler.REGION, rows.stream().map(ObjectIdentityRow::taskId).toList());
+    }
+
+    private long findOrCreateId(String sql, String value) {
+        List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, value, value);
+        return ids.getFirst();
+    }
+
+    private record ObjectIdentityRow(long id, String taskId) {
+    }
+}
@@ -0,0 +1,19 @@
+package tyler.server.repository;
+
+import java.time.LocalDate;
+
+/**
+ * What a task list response needs of a task, read without loading the entity and its subtasks.
+ */
+public record TaskListRow(
+        Long id,
+        long changeSeq,
+        Long parentId,
+        int subtasks,
+        String name,
+        String description,
+        LocalDate dueDate,
+        LocalDate deadline,
+        byte remainingXp,
+        boolean done
+) {}
@@ -1,20 +1,89 @@
 package tyler.server.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.stereotype.Repository;
+import tyler.server.dto.task.TaskExportDTO;
 import tyler.server.entity.Task;
+import tyler.server.entity.User;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends CrudRepository<Task, Long> {
-    @PostFilter("hasPermission(filterObject, 'read')")
-    @Query("SELECT t FROM Task t JOIN FETCH t.user LEFT JOIN FETCH t.parent p")
-    List<Task> findAllTasks();
+    // Filtered row by row as the cursor advances, nothing but the current row is held
+    @PostFilter("hasPermission(filterObject.id(), 'tyler.server.entity.Task', 'read')")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new tyler.server.repository.TaskListRow(" +
+           "t.id, t.changeSeq, t.parent.id, SIZE(t.subtasks), t.name, t.description, t.dueDate, t.deadline, " +
+           "t.remainingXp, t.done) " +
+           "FROM Task t JOIN t.user ORDER BY t.id")
+    Stream<TaskListRow> streamAllTasks();
+    // Tasks without a due date count by their deadline
+    @Query("SELECT new tyler.server.repository.TaskListRow(" +
+           "t.id, t.changeSeq, t.parent.id, SIZE(t.subtasks), t.name, t.description, t.dueDate, t.deadline, " +
+           "t.remainingXp, t.done) " +
+           "FROM Task t WHERE t.user.username = :username AND COALESCE(t.dueDate, t.deadline) BETWEEN :from AND :to " +
+           "ORDER BY t.id")
+    List<TaskListRow> findRowsDueBetween(String username, LocalDate from, LocalDate to);
+    @Query("SELECT DISTINCT t FROM Task t JOIN FETCH t.user LEFT JOIN FETCH t.subtasks WHERE t.id IN :ids")
+    List<Task> findAllWithSubtasksByIdIn(Collection<Long> ids);
+    @Query("SELECT new tyler.server.repository.SubtaskCount(t.parent.id, COUNT(t)) FROM Task t " +
+           "WHERE t.parent.id IN :parentIds GROUP BY t.parent.id")
+    List<SubtaskCount> countSubtasksByParentIdIn(Collection<Long> parentIds);
+    // Read through a server-side cursor, Postgres only honours the fetch size inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new tyler.server.dto.task.TaskExportDTO(" +
+           "t.id, t.parent.id, t.name, t.description, t.dueDate, t.deadline, t.priority.id, t.remainingXp, t.done) " +
+           "FROM Task t WHERE t.user.username = :username ORDER BY t.id")
+    Stream<TaskExportDTO> streamExportByUsername(String username);
+    // Without query spaces Hibernate would treat the native update as touching every table and empty the whole
+    // second-level cache
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task"))
+    @Query(
+      value = "UPDATE task SET parent_id = link.parent_id " +
+              "FROM unnest(CAST(:ids AS BIGINT[]), CAST(:parentIds AS BIGINT[])) AS link(id, parent_id) " +
+              "WHERE task.id = link.id",
+      nativeQuery = true
+    )
+    int linkParents(Long[] ids, Long[] parentIds);
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.parent LEFT JOIN FETCH t.subtasks " +
+           "WHERE t.user = :user AND t.done = false AND t.dueDate IN :days")
+    List<Task> findOpenTasksDueOn(User user, Collection<LocalDate> days);
+    boolean existsByUserAndDeadline(User user, LocalDate deadline);
+    @Query("SELECT new tyler.server.repository.DailyXp(t.dueDate, SUM(t.remainingXp)) FROM Task t " +
+           "WHERE t.user = :user AND t.done = false AND t.dueDate BETWEEN :from AND :to GROUP BY t.dueDate")
+    List<DailyXp> findDailyXp(User user, LocalDate from, LocalDate to);
     @Query("SELECT t FROM Task t JOIN FETCH t.user WHERE t.deadline < CURRENT_DATE AND t.done = false")
     List<Task> findAllTasksOverDeadline();
-    @Query("SELECT t FROM Task t JOIN FETCH t.user WHERE t.dueDate < CURRENT_DATE AND t.done = false")
+    // The subtasks are fetched for the task-updated events, which carry their count
+    @Query("SELECT t FROM Task t JOIN FETCH t.user LEFT JOIN FETCH t.subtasks " +
+           "WHERE t.dueDate < CURRENT_DATE AND t.done = false")
     List<Task> findAllTasksOverDueDate();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.parent LEFT JOIN FETCH t.subtasks " +
+           "WHERE t.user.username = :username AND t.changeSeq > :since")
+    List<Task> findChangedSince(String username, long since);
+    @Query(
+      value = "SELECT tt.task_id FROM task_tombstone tt JOIN app_user u ON u.id = tt.user_id " +
+              "WHERE u.username = :username AND tt.change_seq > :since",
+      nativeQuery = true
+    )
+    List<Long> findDeletedSince(String username, long since);
+    @Query(
+      value = "SELECT t.change_seq FROM task t JOIN app_user u ON u.id = t.user_id " +
+              "WHERE t.id = :id AND u.username = :username",
+      nativeQuery = true
+    )
+    Optional<Long> findChangeSeqByIdAndUsername(Long id, String username);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package tyler.server.repository;
+
+import tyler.server.entity.User;
+
+import java.util.Optional;
+
+public interface UserLookup {
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,31 @@
+package tyler.server.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tyler.server.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Looks users up by their natural id, so a cached username resolves to the cached user without touching the
+ * database. A query by username would go to the database every time, or, with the query cache, be invalidated
+ * by any write to any user.
+ */
+class UserLookupImpl implements UserLookup {
+    private final EntityManager entityManager;
+
+    UserLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Keeps the session open while loading outside a transaction, without making the loaded user read-only
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -9,9 +9,13 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends CrudRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends CrudRepository<User, Long>, UserLookup {
     boolean existsByUsername(String username);
+    // Not mapped on User, the column is only ever written by the task triggers
+    @Query(value = "SELECT change_seq FROM app_user WHERE username = :username", nativeQuery = true)
+    Optional<Long> findChangeSeqByUsername(String username);
+    @Query(value = "SELECT profile_version FROM app_user WHERE username = :username", nativeQuery = true)
+    Optional<Long> findProfileVersionByUsername(String username);
     @Query("SELECT u FROM User u JOIN FETCH u.daysOff d WHERE d < CURRENT_DATE")
     List<User> findUsersWithDayOffInPast();
     @Query(
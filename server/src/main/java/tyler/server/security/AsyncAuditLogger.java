@@ -0,0 +1,129 @@
+package tyler.server.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.acls.domain.AuditLogger;
+import org.springframework.security.acls.model.AccessControlEntry;
+import org.springframework.security.acls.model.AuditableAccessControlEntry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Audits ACL permission decisions like {@code ConsoleAuditLogger}, but off the request path: the deciding
+ * thread only puts the event into a ring buffer and a background thread writes the events in batches.
+ * When the buffer is full the event is dropped and counted rather than blocking the permission check.
+ */
+public class AsyncAuditLogger implements AuditLogger, MeterBinder, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(AsyncAuditLogger.class);
+    private static final Logger auditLog = LoggerFactory.getLogger("tyler.server.audit.acl");
+
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long idleNanos;
+    private final Consumer<List<AuditEvent>> sink;
+    private final Thread drainer;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    public AsyncAuditLogger(int capacity, int batchSize, Duration idleWait, Consumer<List<AuditEvent>> sink) {
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.idleNanos = idleWait.toNanos();
+        this.sink = sink;
+        this.drainer = Thread.ofPlatform().name("acl-audit").daemon().start(this::drain);
+    }
+
+    /**
+     * Writes the audited decisions to the {@code tyler.server.audit.acl} logger.
+     */
+    public static AsyncAuditLogger toLog(int capacity) {
+        return new AsyncAuditLogger(capacity, 256, Duration.ofMillis(50), AsyncAuditLogger::writeToLog);
+    }
+
+    @Override
+    public void logIfNeeded(boolean granted, AccessControlEntry ace) {
+        if (!(ace instanceof AuditableAccessControlEntry auditable)) {
+            return;
+        }
+        if (granted ? auditable.isAuditSuccess() : auditable.isAuditFailure()) {
+            if (!buffer.offer(new AuditEvent(Instant.now(), granted, ace))) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        // Once stopped, keeps going until the events logged before shutdown are written
+        while (running || buffer.size() > 0) {
+            if (drainBatch(batch) == 0 && running) {
+                LockSupport.parkNanos(this, idleNanos);
+            }
+        }
+    }
+
+    private int drainBatch(List<AuditEvent> batch) {
+        AuditEvent event;
+        while (batch.size() < batchSize && (event = buffer.poll()) != null) {
+            batch.add(event);
+        }
+        int size = batch.size();
+        if (size > 0) {
+            try {
+                sink.accept(batch);
+                written.add(size);
+            } catch (RuntimeException e) {
+                dropped.add(size);
+                log.error("Could not write {} ACL audit events", size, e);
+            }
+            batch.clear();
+        }
+        return size;
+    }
+
+    private static void writeToLog(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            auditLog.info("{} at {}: {}", event.granted() ? "GRANTED due to ACE" : "DENIED due to ACE",
+                    event.at(), event.ace());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("acl.audit.events", written, LongAdder::sum)
+                .tag("result", "written")
+                .description("Audited ACL permission decisions")
+                .register(registry);
+        FunctionCounter.builder("acl.audit.events", dropped, LongAdder::sum)
+                .tag("result", "dropped")
+                .description("Audited ACL permission decisions")
+                .register(registry);
+        Gauge.builder("acl.audit.pending", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        if (!drainer.join(Duration.ofSeconds(5))) {
+            log.warn("ACL audit events were still being written at shutdown");
+        }
+    }
+
+    public record AuditEvent(Instant at, boolean granted, AccessControlEntry ace) {
+    }
+}
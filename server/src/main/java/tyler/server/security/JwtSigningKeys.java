@@ -0,0 +1,101 @@
+package tyler.server.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+
+public class JwtSigningKeys {
+    private final JWKSet keys;
+    private final JWK activeKey;
+    private final JWSAlgorithm activeAlgorithm;
+
+    public JwtSigningKeys(JWKSet keys, String activeKeyId) {
+        if (keys.getKeys().isEmpty()) {
+            throw new IllegalArgumentException("JWT key set must contain at least one key");
+        }
+        for (JWK key : keys.getKeys()) {
+            if (key.getKeyID() == null) {
+                throw new IllegalArgumentException("Every JWT key must have a key id (kid)");
+            }
+        }
+        this.keys = keys;
+        this.activeKey = activeKeyId == null ? keys.getKeys().getFirst() : keys.getKeyByKeyId(activeKeyId);
+        if (this.activeKey == null) {
+            throw new IllegalArgumentException("Active JWT key " + activeKeyId + " is not part of the key set");
+        }
+        if (!this.activeKey.isPrivate()) {
+            throw new IllegalArgumentException("Active JWT key " + this.activeKey.getKeyID() + " has no private part");
+        }
+        this.activeAlgorithm = algorithmOf(activeKey);
+    }
+
+    public static JwtSigningKeys load(InputStream keySet, String activeKeyId) throws IOException, ParseException {
+        return new JwtSigningKeys(JWKSet.load(keySet), activeKeyId);
+    }
+
+    public static JwtSigningKeys fromRsaKeyPair(RSAPublicKey publicKey, RSAPrivateKey privateKey) {
+        try {
+            RSAKey key = new RSAKey.Builder(publicKey)
+                    .privateKey(privateKey)
+                    .keyIDFromThumbprint()
+                    .build();
+            return new JwtSigningKeys(new JWKSet(key), null);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not derive a key id for the RSA key pair", e);
+        }
+    }
+
+    public static JWK generateKey(JWSAlgorithm algorithm, String keyId) throws JOSEException {
+        if (JWSAlgorithm.Family.RSA.contains(algorithm)) {
+            return new RSAKeyGenerator(2048).keyID(keyId).algorithm(algorithm).generate();
+        }
+        if (JWSAlgorithm.Family.EC.contains(algorithm)) {
+            return new ECKeyGenerator(Curve.forJWSAlgorithm(algorithm).iterator().next())
+                    .keyID(keyId).algorithm(algorithm).generate();
+        }
+        if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+            return new OctetKeyPairGenerator(Curve.Ed25519).keyID(keyId).algorithm(algorithm).generate();
+        }
+        throw new IllegalArgumentException("Unsupported JWT signing algorithm " + algorithm);
+    }
+
+    public JWKSet keySet() {
+        return keys;
+    }
+
+    public JWKSet publicKeySet() {
+        return keys.toPublicJWKSet();
+    }
+
+    public JWK activeKey() {
+        return activeKey;
+    }
+
+    public JWSAlgorithm activeAlgorithm() {
+        return activeAlgorithm;
+    }
+
+    public static JWSAlgorithm algorithmOf(JWK key) {
+        if (key.getAlgorithm() != null) {
+            return JWSAlgorithm.parse(key.getAlgorithm().getName());
+        }
+        return switch (key) {
+            case RSAKey ignored -> JWSAlgorithm.RS256;
+            case ECKey ec when Curve.P_256.equals(ec.getCurve()) -> JWSAlgorithm.ES256;
+            case ECKey ec when Curve.P_384.equals(ec.getCurve()) -> JWSAlgorithm.ES384;
+            case ECKey ec when Curve.P_521.equals(ec.getCurve()) -> JWSAlgorithm.ES512;
+            case OctetKeyPair okp when Curve.Ed25519.equals(okp.getCurve()) -> JWSAlgorithm.EdDSA;
+            default -> throw new IllegalArgumentException(
+                    "Unsupported JWT key " + key.getKeyID() + " of type " + key.getKeyType());
+        };
+    }
+}
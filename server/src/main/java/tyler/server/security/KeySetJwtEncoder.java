@@ -0,0 +1,62 @@
+package tyler.server.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.factories.DefaultJWSSignerFactory;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.net.URL;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+// Signs with the active key only, so the signer is built once instead of selecting a JWK for every token
+public class KeySetJwtEncoder implements JwtEncoder {
+    private final JWSHeader header;
+    private final Map<String, Object> headers;
+    private final JWSSigner signer;
+
+    public KeySetJwtEncoder(JwtSigningKeys keys) {
+        this.header = new JWSHeader.Builder(keys.activeAlgorithm())
+                .keyID(keys.activeKey().getKeyID())
+                .build();
+        this.headers = Map.copyOf(header.toJSONObject());
+        try {
+            this.signer = new DefaultJWSSignerFactory().createJWSSigner(keys.activeKey(), keys.activeAlgorithm());
+        } catch (JOSEException e) {
+            throw new IllegalArgumentException("Cannot sign with JWT key " + keys.activeKey().getKeyID(), e);
+        }
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        JwsHeader requestedHeader = parameters.getJwsHeader();
+        if (requestedHeader != null && (!header.getAlgorithm().getName().equals(requestedHeader.getAlgorithm().getName())
+                || (requestedHeader.getKeyId() != null && !requestedHeader.getKeyId().equals(header.getKeyID())))) {
+            throw new JwtEncodingException("Tokens can only be signed with the active JWT key " + header.getKeyID());
+        }
+
+        JwtClaimsSet claims = parameters.getClaims();
+        JWTClaimsSet.Builder jwtClaims = new JWTClaimsSet.Builder();
+        claims.getClaims().forEach((name, value) -> jwtClaims.claim(name, toJwtClaimValue(value)));
+
+        SignedJWT jwt = new SignedJWT(header, jwtClaims.build());
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new JwtEncodingException("Failed to sign the JWT", e);
+        }
+        return new Jwt(jwt.serialize(), claims.getIssuedAt(), claims.getExpiresAt(), headers, claims.getClaims());
+    }
+
+    private static Object toJwtClaimValue(Object value) {
+        return switch (value) {
+            case Instant instant -> Date.from(instant);
+            case URL url -> url.toExternalForm();
+            default -> value;
+        };
+    }
+}
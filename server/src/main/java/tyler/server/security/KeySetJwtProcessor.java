@@ -0,0 +1,74 @@
+package tyler.server.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Verifies against a verifier prepared per key id; claims are left to NimbusJwtDecoder's validator
+public class KeySetJwtProcessor extends DefaultJWTProcessor<SecurityContext> {
+    private final Map<String, KeyVerifier> verifiers = new HashMap<>();
+
+    public KeySetJwtProcessor(JwtSigningKeys keys) {
+        for (JWK key : keys.publicKeySet().getKeys()) {
+            try {
+                verifiers.put(key.getKeyID(), new KeyVerifier(JwtSigningKeys.algorithmOf(key), verifierFor(key)));
+            } catch (JOSEException e) {
+                throw new IllegalArgumentException("Cannot verify with JWT key " + key.getKeyID(), e);
+            }
+        }
+    }
+
+    @Override
+    public JWTClaimsSet process(SignedJWT jwt, SecurityContext context) throws BadJOSEException, JOSEException {
+        KeyVerifier verifier = verifierFor(jwt.getHeader());
+        if (verifier == null || !jwt.verify(verifier.verifier())) {
+            throw new BadJWSException("Signed JWT rejected: Invalid signature or unknown key");
+        }
+        try {
+            return jwt.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new BadJWSException("Signed JWT rejected: Invalid claims", e);
+        }
+    }
+
+    private KeyVerifier verifierFor(JWSHeader header) {
+        KeyVerifier verifier;
+        if (header.getKeyID() != null) {
+            verifier = verifiers.get(header.getKeyID());
+        } else if (verifiers.size() == 1) {
+            verifier = verifiers.values().iterator().next();
+        } else {
+            return null;
+        }
+        return verifier != null && verifier.algorithm().equals(header.getAlgorithm()) ? verifier : null;
+    }
+
+    private static JWSVerifier verifierFor(JWK key) throws JOSEException {
+        return switch (key) {
+            case RSAKey rsa -> new RSASSAVerifier(rsa);
+            case ECKey ec -> new ECDSAVerifier(ec);
+            case OctetKeyPair okp -> new Ed25519Verifier(okp);
+            default -> throw new JOSEException("Unsupported key type " + key.getKeyType());
+        };
+    }
+
+    private record KeyVerifier(JWSAlgorithm algorithm, JWSVerifier verifier) {}
+}
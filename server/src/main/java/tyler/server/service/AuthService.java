@@ -1,10 +1,11 @@
 package tyler.server.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
@@ -16,12 +17,14 @@ import tyler.server.entity.RefreshToken;
 import tyler.server.entity.User;
 import tyler.server.repository.RefreshTokenRepository;
 import tyler.server.repository.UserRepository;
+import tyler.server.security.AuthenticatedUser;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Service
+@Timed(value = "auth.service", histogram = true)
 public class AuthService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
@@ -56,31 +59,25 @@ public class AuthService {
 
     @Transactional
     public AuthResponse login(AuthRequest request) {
-        authManager.authenticate(
+        Authentication authentication = authManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.username(), request.password())
         );
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
 
         Instant now = Instant.now();
         String accessToken = jwtEncoder.encode(
                 JwtEncoderParameters.from(JwtClaimsSet.builder()
-                        .subject(request.username())
+                        .subject(user.getUsername())
                         .issuedAt(now)
                         .expiresAt(now.plus(15, ChronoUnit.MINUTES))
                         .build()
                 )
         ).getTokenValue();
 
-        RefreshToken refreshToken = RefreshToken.builder()
-                .expiresAt(now.plus(30, ChronoUnit.DAYS))
-                .build();
+        UUID refreshToken = UUID.randomUUID();
+        refreshTokenRepository.insert(refreshToken, user.getId(), now, now.plus(30, ChronoUnit.DAYS));
 
-        User user = userRepository.findByUsername(request.username())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        user.addRefreshToken(refreshToken);
-        refreshTokenRepository.save(refreshToken);
-
-        return new AuthResponse(accessToken, refreshToken.getId());
+        return new AuthResponse(accessToken, refreshToken);
     }
 
     public String refreshAccessToken(UUID refreshToken) {
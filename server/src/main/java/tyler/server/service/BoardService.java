@@ -0,0 +1,82 @@
+package tyler.server.service;
+
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tyler.server.dto.board.BoardDto;
+import tyler.server.dto.priority.PriorityResponseDto;
+import tyler.server.dto.task.TaskResponseDTO;
+import tyler.server.dto.user.UserProfileDto;
+import tyler.server.mapper.UserMapper;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads the parts of the board concurrently, each on its own virtual thread and in its own read-only
+ * transaction, so loading the board takes about as long as its slowest part. The threads run with the
+ * caller's security context, which the ACL checks and the replica routing rely on. Every part holds a
+ * pooled connection while it runs.
+ */
+@Service
+public class BoardService {
+    private final UserService userService;
+    private final TaskService taskService;
+    private final PriorityService priorityService;
+    private final UserMapper userMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BoardService(UserService userService, TaskService taskService, PriorityService priorityService,
+                        UserMapper userMapper, PlatformTransactionManager transactionManager) {
+        this.userService = userService;
+        this.taskService = taskService;
+        this.priorityService = priorityService;
+        this.userMapper = userMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public BoardDto getBoard(String username) {
+        LocalDate monday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate sunday = monday.plusDays(6);
+        try (ExecutorService executor = new DelegatingSecurityContextExecutorService(
+                Executors.newVirtualThreadPerTaskExecutor())) {
+            Future<UserProfileDto> profile = executor.submit(() -> getProfile(username));
+            Future<List<TaskResponseDTO>> tasks = executor.submit(() -> taskService.getTasksDueBetween(username, monday, sunday));
+            Future<List<PriorityResponseDto>> priorities = executor.submit(priorityService::findAllPriorities);
+            try {
+                return new BoardDto(join(profile), join(tasks), join(priorities));
+            } catch (RuntimeException e) {
+                // No point in finishing the other parts, the request fails anyway
+                executor.shutdownNow();
+                throw e;
+            }
+        }
+    }
+
+    // The days off are loaded lazily, so the profile is mapped before the transaction ends
+    private UserProfileDto getProfile(String username) {
+        return readOnlyTransaction.execute(status -> userMapper.toUserProfileDto(userService.getProfile(username)));
+    }
+
+    private static <T> T join(Future<T> part) {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the board", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Could not load the board", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package tyler.server.service;
+
+import tyler.server.repository.DailyXp;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The open xp due per day, used to spread relocated tasks over the days they may move to.
+ */
+final class DailyXpLoad {
+    private final Map<LocalDate, Integer> xpByDay = new HashMap<>();
+    private final int dailyXpQuota;
+
+    DailyXpLoad(List<DailyXp> dailyXp, int dailyXpQuota) {
+        dailyXp.forEach(day -> xpByDay.put(day.day(), day.xp().intValue()));
+        this.dailyXpQuota = dailyXpQuota;
+    }
+
+    /**
+     * Picks the earliest day in the range the xp still fits on within the daily quota. When every day is already
+     * full, the least loaded day is picked instead (the earliest one on a tie). Days off are skipped, returns null
+     * if the range has no working day.
+     */
+    LocalDate pickDay(LocalDate from, LocalDate to, int xp, OffDayCalendar calendar) {
+        LocalDate leastLoadedDay = null;
+        int leastLoad = Integer.MAX_VALUE;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (calendar.isOffDay(day)) {
+                continue;
+            }
+            int load = xpByDay.getOrDefault(day, 0);
+            if (load + xp <= dailyXpQuota) {
+                return day;
+            }
+            if (load < leastLoad) {
+                leastLoadedDay = day;
+                leastLoad = load;
+            }
+        }
+        return leastLoadedDay;
+    }
+
+    void add(LocalDate day, int xp) {
+        xpByDay.merge(day, xp, Integer::sum);
+    }
+}
@@ -0,0 +1,40 @@
+package tyler.server.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A user's days off as a sorted array. Looking up the next free day is a binary search plus a walk over the run of
+ * consecutive days off, instead of probing the set one day at a time.
+ */
+public final class OffDayCalendar {
+    private final LocalDate[] offDays;
+
+    public OffDayCalendar(Collection<LocalDate> offDays) {
+        this.offDays = offDays.stream().distinct().sorted().toArray(LocalDate[]::new);
+    }
+
+    public boolean isEmpty() {
+        return offDays.length == 0;
+    }
+
+    public boolean isOffDay(LocalDate date) {
+        return Arrays.binarySearch(offDays, date) >= 0;
+    }
+
+    /**
+     * Returns the date itself if it is not a day off, otherwise the first day after the days off it falls in.
+     */
+    public LocalDate nextAvailableDate(LocalDate date) {
+        int index = Arrays.binarySearch(offDays, date);
+        if (index < 0) {
+            return date;
+        }
+        LocalDate next = date.plusDays(1);
+        for (index++; index < offDays.length && offDays[index].equals(next); index++) {
+            next = next.plusDays(1);
+        }
+        return next;
+    }
+}
@@ -0,0 +1,68 @@
+package tyler.server.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tyler.server.repository.TaskAclRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purges the ACLs of tasks that no longer exist. Task deletes remove their ACLs themselves, this catches the rows
+ * left behind before they did, and anything a failed delete might leave. Each chunk is deleted in its own statements,
+ * so a purge never holds locks on many ACL rows at once.
+ */
+@Service
+public class OrphanAclReconciler implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(OrphanAclReconciler.class);
+
+    private final TaskAclRepository taskAclRepository;
+    private final int chunkSize;
+    private final AtomicLong orphans = new AtomicLong();
+    private final LongAdder purged = new LongAdder();
+
+    public OrphanAclReconciler(TaskAclRepository taskAclRepository,
+                               @Value("${acl.orphans.chunk-size:1000}") int chunkSize) {
+        this.taskAclRepository = taskAclRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${acl.orphans.initial-delay:PT1M}", fixedDelayString = "${acl.orphans.interval:PT1H}")
+    public void purgeOrphans() {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = taskAclRepository.deleteOrphanAcls(chunkSize);
+            purged.add(deleted);
+            total += deleted;
+        } while (deleted == chunkSize);
+        if (total > 0) {
+            log.info("Purged {} orphan task ACLs", total);
+        }
+        orphans.set(taskAclRepository.countOrphanAcls());
+    }
+
+    /**
+     * Orphan ACLs left over by the last purge, e.g. those that appeared while it ran.
+     */
+    public long orphanCount() {
+        return orphans.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("acl.orphans", orphans, AtomicLong::get)
+                .description("Task ACLs without a task, as of the last purge")
+                .register(registry);
+        FunctionCounter.builder("acl.orphans.purged", purged, LongAdder::sum)
+                .description("Orphan task ACLs deleted by the purge")
+                .register(registry);
+    }
+}
@@ -1,6 +1,7 @@
 package tyler.server.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import tyler.server.dto.priority.PriorityResponseDto;
 import tyler.server.mapper.PriorityMapper;
 import tyler.server.repository.PriorityRepository;
@@ -18,6 +19,7 @@ public class PriorityService {
         this.priorityMapper = priorityMapper;
     }
 
+    @Transactional(readOnly = true)
     public List<PriorityResponseDto> findAllPriorities() {
         return priorityRepository.findAllPriorities().stream()
                 .map(priorityMapper::toResponseDto).toList();
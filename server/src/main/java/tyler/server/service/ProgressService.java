@@ -1,25 +1,57 @@
 package tyler.server.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tyler.server.entity.Task;
 import tyler.server.entity.User;
+import tyler.server.event.ProgressChangedEvent;
+import tyler.server.event.TaskChangedEvent;
+import tyler.server.mapper.TaskMapper;
 import tyler.server.repository.TaskRepository;
 import tyler.server.repository.UserRepository;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class ProgressService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-
-    public ProgressService(TaskRepository taskRepository, UserRepository userRepository) {
+    private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter streaksAchievedRows;
+    private final Counter streaksResetRows;
+    private final Counter overDeadlineRows;
+    private final Counter overDueDateRows;
+
+    public ProgressService(TaskRepository taskRepository, UserRepository userRepository, TaskMapper taskMapper,
+                           ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.taskMapper = taskMapper;
+        this.eventPublisher = eventPublisher;
+        // The job durations are recorded by the scheduler as tasks.scheduled.execution
+        this.streaksAchievedRows = jobRowsCounter(meterRegistry, "daily-streaks", "achieved");
+        this.streaksResetRows = jobRowsCounter(meterRegistry, "daily-streaks", "reset");
+        this.overDeadlineRows = jobRowsCounter(meterRegistry, "over-deadline-penalty", "penalized");
+        this.overDueDateRows = jobRowsCounter(meterRegistry, "over-due-date-penalty", "penalized");
+    }
+
+    private static Counter jobRowsCounter(MeterRegistry meterRegistry, String job, String outcome) {
+        return Counter.builder("progress.job.rows")
+                .description("Rows touched by the midnight progress jobs")
+                .tag("job", job)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Transactional
@@ -47,45 +79,63 @@ public class ProgressService {
                 user.setLastAchievedDate(today);
             }
         }
+        eventPublisher.publishEvent(ProgressChangedEvent.of(user));
     }
 
     @Transactional
     public void relocateTasksForOffDays(User user) {
-        LocalDate today = LocalDate.now();
-        List<Task> tasksToRelocate = user.getTasks().stream()
-                .filter(task -> !task.isDone() && task.getDueDate() != null &&
-                        (user.getDaysOff().contains(task.getDueDate()) ||
-                                user.getDaysOff().contains(today)))
+        OffDayCalendar calendar = new OffDayCalendar(user.getDaysOff());
+        if (calendar.isEmpty()) {
+            return;
+        }
+        // Only open tasks due on a day off move, the rest of the user's tasks is never loaded
+        List<Task> tasksToRelocate = taskRepository.findOpenTasksDueOn(user, user.getDaysOff());
+        if (tasksToRelocate.isEmpty()) {
+            return;
+        }
+        // Task hashes by class only, an identity set keeps the lookups constant
+        Set<Task> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+        pending.addAll(tasksToRelocate);
+
+        LocalDate from = tasksToRelocate.stream()
+                .map(task -> calendar.nextAvailableDate(task.getDueDate()))
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = tasksToRelocate.stream()
+                .map(Task::getDeadline)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        DailyXpLoad load = new DailyXpLoad(taskRepository.findDailyXp(user, from, to), user.getDailyXpQuota());
+
+        // Earliest deadline first, the tightest tasks get the first pick of the days
+        tasksToRelocate.stream()
                 .sorted(Comparator.comparing(Task::getDeadline))
-                .toList();
+                .forEach(task -> relocate(user, task, calendar, load, pending));
+    }
 
-        for (Task task : tasksToRelocate) {
-            LocalDate newDueDate = findNextAvailableDate(user, task.getDueDate());
-            if (newDueDate != null && !newDueDate.isAfter(task.getDeadline())) {
-                task.setDueDate(newDueDate);
-                relocateSubtasks(task, user);
-            }
+    private void relocate(User user, Task task, OffDayCalendar calendar, DailyXpLoad load, Set<Task> pending) {
+        if (!pending.remove(task)) {
+            return;
+        }
+        Task parent = task.getParent();
+        // A subtask may not end up after its parent, so the parent has to be moved first
+        if (parent != null && pending.contains(parent)) {
+            relocate(user, parent, calendar, load, pending);
         }
-    }
 
-    private void relocateSubtasks(Task parentTask, User user) {
-        for (Task subtask : parentTask.getSubtasks()) {
-            if (!subtask.isDone() && subtask.getDueDate() != null) {
-                LocalDate newDueDate = findNextAvailableDate(user, subtask.getDueDate());
-                if (newDueDate != null && !newDueDate.isAfter(subtask.getDeadline()) &&
-                        !newDueDate.isAfter(parentTask.getDueDate())) {
-                    subtask.setDueDate(newDueDate);
-                }
-            }
+        LocalDate latest = task.getDeadline();
+        if (parent != null && parent.getDueDate() != null && parent.getDueDate().isBefore(latest)) {
+            latest = parent.getDueDate();
+        }
+        LocalDate newDueDate = load.pickDay(calendar.nextAvailableDate(task.getDueDate()), latest, task.getRemainingXp(), calendar);
+        if (newDueDate != null) {
+            task.setDueDate(newDueDate);
+            load.add(newDueDate, task.getRemainingXp());
+            publishTaskUpdate(user, task);
         }
     }
 
-    private LocalDate findNextAvailableDate(User user, LocalDate currentDate) {
-        LocalDate nextDate = currentDate;
-        while (user.getDaysOff().contains(nextDate)) {
-            nextDate = nextDate.plusDays(1);
-        }
-        return nextDate;
+    private void publishTaskUpdate(User user, Task task) {
+        eventPublisher.publishEvent(new TaskChangedEvent(
+                user.getUsername(), TaskChangedEvent.Change.UPDATED, task.getId(), taskMapper.toResponseDto(task)));
     }
 
     private void updateStreak(User user, LocalDate today, LocalDate lastAchieved) {
@@ -131,12 +181,16 @@ public class ProgressService {
                 updateStreak(user, today, lastAchieved);
                 user.setLastAchievedDate(today);
                 user.setCurrentXp(user.getCurrentXp() - user.getDailyXpQuota());
+                streaksAchievedRows.increment();
+                eventPublisher.publishEvent(ProgressChangedEvent.of(user));
             }
         });
 
         // Then, reset streaks for users who haven't met their quota
         userRepository.findUsersWhoAreNotOffAndMissedDailyQuotaToday().forEach(user -> {
             user.setCurrentStreak(0);
+            streaksResetRows.increment();
+            eventPublisher.publishEvent(ProgressChangedEvent.of(user));
         });
 
         userRepository.saveAll(userRepository.findUsersWithEnoughXpForDailyQuota());
@@ -146,11 +200,15 @@ public class ProgressService {
     @Scheduled(cron = "0 0 0 * * *")
     @Transactional
     public void penalizeForOverDeadlineTasks() {
+        Set<User> penalizedUsers = new LinkedHashSet<>();
         taskRepository.findAllTasksOverDeadline()
                 .forEach(task -> {
                     User user = task.getUser();
                     user.setCurrentXp(user.getCurrentXp() - 1);
+                    overDeadlineRows.increment();
+                    penalizedUsers.add(user);
                 });
+        penalizedUsers.forEach(user -> eventPublisher.publishEvent(ProgressChangedEvent.of(user)));
     }
 
     @Scheduled(cron = "0 0 0 * * *")
@@ -159,6 +217,8 @@ public class ProgressService {
         taskRepository.findAllTasksOverDueDate()
                 .forEach(task -> {
                     task.setRemainingXp((byte) Math.min((task.getRemainingXp() - 1), 0));
+                    overDueDateRows.increment();
+                    publishTaskUpdate(task.getUser(), task);
                 });
     }
 }
\ No newline at end of file
@@ -0,0 +1,323 @@
+package tyler.server.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.ValidationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.acls.domain.BasePermission;
+import org.springframework.security.acls.model.Permission;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tyler.server.dto.task.TaskBatchRequestDTO;
+import tyler.server.dto.task.TaskOperationDTO;
+import tyler.server.dto.task.TaskOperationErrorDTO;
+import tyler.server.dto.task.TaskOperationResultDTO;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.Task;
+import tyler.server.entity.User;
+import tyler.server.exception.BusinessValidationException;
+import tyler.server.exception.ResourceNotFoundException;
+import tyler.server.exception.TaskBatchException;
+import tyler.server.mapper.TaskMapper;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.TaskAclRepository;
+import tyler.server.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of task operations in one transaction. Every operation is run against the loaded entities first and
+ * all failures are collected, if any operation fails nothing is written and the failures are reported per index.
+ * Tasks, priorities and permissions are loaded with one query each up front, the writes go out as JDBC batches on
+ * flush and the ACLs of all created tasks are inserted with two statements.
+ */
+@Service
+@Timed(value = "task.batch.service", histogram = true)
+public class TaskBatchService {
+    private final TaskRepository taskRepository;
+    private final PriorityRepository priorityRepository;
+    private final TaskAclRepository taskAclRepository;
+    private final TaskMapper taskMapper;
+    private final TaskService taskService;
+
+    public TaskBatchService(
+            TaskRepository taskRepository,
+            PriorityRepository priorityRepository,
+            TaskAclRepository taskAclRepository,
+            TaskMapper taskMapper,
+            TaskService taskService) {
+        this.taskRepository = taskRepository;
+        this.priorityRepository = priorityRepository;
+        this.taskAclRepository = taskAclRepository;
+        this.taskMapper = taskMapper;
+        this.taskService = taskService;
+    }
+
+    @Transactional
+    public List<TaskOperationResultDTO> apply(User user, TaskBatchRequestDTO request) {
+        return new Batch(user, request.operations()).run();
+    }
+
+    /**
+     * What updating or completing a task may change: the task itself, its place under its parent, the parent's
+     * remaining xp, the done flags of its subtasks and the progress of its user.
+     */
+    private record TaskSnapshot(Task task, String name, String description, LocalDate dueDate, LocalDate deadline,
+                                Priority priority, byte remainingXp, boolean done, Task parent, int parentSubtasks,
+                                byte parentRemainingXp, List<Boolean> subtasksDone, int currentXp, int currentStreak,
+                                LocalDate lastAchievedDate) {
+        static TaskSnapshot of(Task task) {
+            Task parent = task.getParent();
+            User user = task.getUser();
+            return new TaskSnapshot(task, task.getName(), task.getDescription(), task.getDueDate(), task.getDeadline(),
+                    task.getPriority(), task.getRemainingXp(), task.isDone(), parent,
+                    parent != null ? parent.getSubtasks().size() : 0, parent != null ? parent.getRemainingXp() : 0,
+                    task.getSubtasks().stream().map(Task::isDone).toList(),
+                    user.getCurrentXp(), user.getCurrentStreak(), user.getLastAchievedDate());
+        }
+
+        void restore() {
+            task.setName(name);
+            task.setDescription(description);
+            task.setDueDate(dueDate);
+            task.setDeadline(deadline);
+            task.setPriority(priority);
+            task.setRemainingXp(remainingXp);
+            task.setDone(done);
+
+            // Undoes a relink, addSubtask() appends to the new parent's subtasks even if that is the old parent
+            Task current = task.getParent();
+            if (current != null) {
+                List<Task> siblings = current.getSubtasks();
+                int added = siblings.lastIndexOf(task);
+                if (added >= 0 && (current != parent || siblings.size() > parentSubtasks)) {
+                    siblings.remove(added);
+                }
+            }
+            task.setParent(parent);
+            if (parent != null) {
+                parent.setRemainingXp(parentRemainingXp);
+            }
+
+            List<Task> subtasks = task.getSubtasks();
+            for (int i = 0; i < subtasks.size(); i++) {
+                subtasks.get(i).setDone(subtasksDone.get(i));
+            }
+
+            User user = task.getUser();
+            user.setCurrentXp(currentXp);
+            user.setCurrentStreak(currentStreak);
+            user.setLastAchievedDate(lastAchievedDate);
+        }
+    }
+
+    private class Batch {
+        private final User user;
+        private final List<TaskOperationDTO> operations;
+        private final Map<Long, Task> tasks;
+        private final Map<Long, Integer> grantedMasks;
+        private final Map<Long, Priority> priorities;
+
+        private final Map<String, Task> createdByRef = new HashMap<>();
+        private final Set<String> failedRefs = new HashSet<>();
+        private final Set<Long> deletedIds = new HashSet<>();
+        private final List<Task> created = new ArrayList<>();
+        private final List<TaskOperationErrorDTO> errors = new ArrayList<>();
+
+        Batch(User user, List<TaskOperationDTO> operations) {
+            this.user = user;
+            this.operations = operations;
+
+            Set<Long> taskIds = new HashSet<>();
+            Set<Long> priorityIds = new HashSet<>();
+            for (TaskOperationDTO operation : operations) {
+                if (operation.id() != null) {
+                    taskIds.add(operation.id());
+                }
+                if (operation.task() != null) {
+                    if (operation.task().parentId() != null) {
+                        taskIds.add(operation.task().parentId());
+                    }
+                    priorityIds.add(operation.task().priorityId());
+                }
+            }
+            priorityIds.remove(null);
+
+            this.tasks = taskIds.isEmpty() ? Map.of() : taskRepository.findAllWithSubtasksByIdIn(taskIds).stream()
+                    .collect(Collectors.toMap(Task::getId, Function.identity()));
+            this.grantedMasks = taskAclRepository.findGrantedMasks(user.getUsername(), tasks.keySet());
+            this.priorities = new HashMap<>();
+            priorityRepository.findAllById(priorityIds).forEach(priority -> priorities.put(priority.getId(), priority));
+        }
+
+        List<TaskOperationResultDTO> run() {
+            List<TaskOperationResultDTO> results = new ArrayList<>(operations.size());
+            for (int index = 0; index < operations.size(); index++) {
+                TaskOperationDTO operation = operations.get(index);
+                try {
+                    Task task = switch (operation.type()) {
+                        case CREATE -> create(operation);
+                        case UPDATE -> update(operation);
+                        case DONE -> complete(operation);
+                        case DELETE -> delete(operation);
+                    };
+                    results.add(new TaskOperationResultDTO(index, operation.type(), operation.ref(), task.getId()));
+                } catch (ValidationException | BusinessValidationException | ResourceNotFoundException
+                         | AccessDeniedException | IllegalArgumentException | IllegalStateException e) {
+                    if (operation.ref() != null) {
+                        failedRefs.add(operation.ref());
+                    }
+                    errors.add(new TaskOperationErrorDTO(index, operation.ref(), e.getMessage()));
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                // Rolls back everything the successful operations changed
+                throw new TaskBatchException(errors);
+            }
+
+            // Tasks created under a task the batch deleted later went with it, the user must not keep them either
+            List<Task> deletedCreated = created.stream().filter(task -> deletedIds.contains(task.getId())).toList();
+            deletedCreated.forEach(user::removeTask);
+            created.removeAll(deletedCreated);
+            results.removeIf(result -> result.type() == TaskOperationDTO.Type.CREATE && deletedIds.contains(result.id()));
+
+            taskAclRepository.createOwnerAcls(user.getUsername(), created.stream().map(Task::getId).toList());
+            created.forEach(taskService::publishCreated);
+            return results;
+        }
+
+        private Task create(TaskOperationDTO operation) {
+            TaskRequestDTO request = payload(operation);
+            if (operation.ref() != null && (createdByRef.containsKey(operation.ref()) || failedRefs.contains(operation.ref()))) {
+                throw new IllegalArgumentException("Reference " + operation.ref() + " is used more than once");
+            }
+            if (operation.parentRef() != null && request.parentId() != null) {
+                throw new IllegalArgumentException("A task cannot have both a parent reference and a parent ID");
+            }
+
+            Task task = taskMapper.toTask(request);
+            task.setPriority(priority(request.priorityId()));
+            Task parent = operation.parentRef() != null
+                    ? createdParent(operation.parentRef())
+                    : request.parentId() != null ? parent(request.parentId()) : null;
+
+            try {
+                taskService.prepareNewTask(user, task, parent);
+            } catch (RuntimeException e) {
+                // Keep the rejected task out of the xp sums the following operations are validated against
+                if (parent != null) {
+                    parent.removeSubtask(task);
+                }
+                user.removeTask(task);
+                throw e;
+            }
+
+            task = taskRepository.save(task);
+            created.add(task);
+            if (operation.ref() != null) {
+                createdByRef.put(operation.ref(), task);
+            }
+            return task;
+        }
+
+        private Task update(TaskOperationDTO operation) {
+            TaskRequestDTO request = payload(operation);
+            Task task = authorized(operation.id(), BasePermission.WRITE);
+            undoOnFailure(task, () -> taskService.applyUpdate(task, request, this::priority, this::parent));
+            return task;
+        }
+
+        private Task complete(TaskOperationDTO operation) {
+            Task task = authorized(operation.id(), BasePermission.WRITE);
+            undoOnFailure(task, () -> taskService.complete(task));
+            return task;
+        }
+
+        // Like a rejected create, a failed change must not leave anything behind the following operations are validated against
+        private void undoOnFailure(Task task, Runnable change) {
+            TaskSnapshot snapshot = TaskSnapshot.of(task);
+            try {
+                change.run();
+            } catch (RuntimeException e) {
+                snapshot.restore();
+                throw e;
+            }
+        }
+
+        private Task delete(TaskOperationDTO operation) {
+            Task task = authorized(operation.id(), BasePermission.DELETE);
+            markDeleted(task);
+            taskService.remove(task);
+            return task;
+        }
+
+        // The whole subtree goes with the task, including the tasks created or moved under it earlier in the batch
+        private void markDeleted(Task task) {
+            deletedIds.add(task.getId());
+            task.getSubtasks().forEach(this::markDeleted);
+        }
+
+        private TaskRequestDTO payload(TaskOperationDTO operation) {
+            if (operation.task() == null) {
+                throw new IllegalArgumentException(operation.type() + " needs a task");
+            }
+            return operation.task();
+        }
+
+        private Task authorized(Long id, Permission permission) {
+            if (id == null) {
+                throw new IllegalArgumentException("Operation needs the ID of an existing task");
+            }
+            if (deletedIds.contains(id)) {
+                throw new IllegalStateException("Task with ID " + id + " was deleted earlier in the batch");
+            }
+            Task task = tasks.get(id);
+            if (task == null) {
+                throw new ResourceNotFoundException("Task with ID " + id + " does not exist");
+            }
+            if ((grantedMasks.getOrDefault(id, 0) & permission.getMask()) == 0) {
+                throw new AccessDeniedException("Access to task with ID " + id + " is denied");
+            }
+            return task;
+        }
+
+        private Task parent(Long parentId) {
+            if (!tasks.containsKey(parentId) || deletedIds.contains(parentId)) {
+                throw new ConstraintViolationException("Parent Task with ID " + parentId + " does not exist", null);
+            }
+            return authorized(parentId, BasePermission.WRITE);
+        }
+
+        private Task createdParent(String parentRef) {
+            if (failedRefs.contains(parentRef)) {
+                throw new IllegalArgumentException("Parent " + parentRef + " could not be created");
+            }
+            Task parent = createdByRef.get(parentRef);
+            if (parent == null) {
+                throw new IllegalArgumentException("Parent reference " + parentRef + " must be created earlier in the batch");
+            }
+            if (deletedIds.contains(parent.getId())) {
+                throw new IllegalStateException("Parent " + parentRef + " was deleted earlier in the batch");
+            }
+            return parent;
+        }
+
+        private Priority priority(Long priorityId) {
+            Priority priority = priorityId == null ? null : priorities.get(priorityId);
+            if (priority == null) {
+                throw new ConstraintViolationException("Priority with ID " + priorityId + " does not exist", null);
+            }
+            return priority;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package tyler.server.service;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.PermissionEvaluator;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.acls.domain.BasePermission;
 import org.springframework.security.acls.domain.ObjectIdentityImpl;
@@ -11,51 +15,137 @@ import org.springframework.security.acls.jdbc.JdbcMutableAclService;
 import org.springframework.security.acls.model.MutableAcl;
 import org.springframework.security.acls.model.ObjectIdentity;
 import org.springframework.security.acls.model.Sid;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
+import tyler.server.dto.task.TaskChangesDTO;
 import tyler.server.dto.task.TaskRequestDTO;
 import tyler.server.dto.task.TaskResponseDTO;
+import tyler.server.entity.Priority;
 import tyler.server.entity.User;
+import tyler.server.event.ProgressChangedEvent;
+import tyler.server.event.TaskChangedEvent;
 import tyler.server.mapper.TaskMapper;
+import tyler.server.cache.TaskJsonCache;
 import tyler.server.exception.ResourceNotFoundException;
 import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.SubtaskCount;
+import tyler.server.repository.TaskAclRepository;
+import tyler.server.repository.TaskListRow;
 import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
 import tyler.server.entity.Task;
 import tyler.server.validation.TaskValidator;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Validated
+@Timed(value = "task.service", histogram = true)
 public class TaskService {
     private final TaskRepository taskRepository;
     private final PriorityRepository priorityRepository;
+    private final UserRepository userRepository;
     private final TaskMapper taskMapper;
+    private final TaskJsonCache taskJsonCache;
     private final TaskValidator validator;
     private final ProgressService progressService;
     private final JdbcMutableAclService aclService;
+    private final TaskAclRepository taskAclRepository;
+    private final PermissionEvaluator permissionEvaluator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public TaskService(
             TaskRepository taskRepository, PriorityRepository priorityRepository,
+            UserRepository userRepository,
             TaskMapper taskMapper,
+            TaskJsonCache taskJsonCache,
             TaskValidator validator,
             ProgressService progressService,
-            JdbcMutableAclService aclService) {
+            JdbcMutableAclService aclService,
+            TaskAclRepository taskAclRepository,
+            PermissionEvaluator permissionEvaluator,
+            ApplicationEventPublisher eventPublisher) {
         this.taskRepository = taskRepository;
         this.priorityRepository = priorityRepository;
+        this.userRepository = userRepository;
         this.taskMapper = taskMapper;
+        this.taskJsonCache = taskJsonCache;
         this.validator = validator;
         this.progressService = progressService;
         this.aclService = aclService;
+        this.taskAclRepository = taskAclRepository;
+        this.permissionEvaluator = permissionEvaluator;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<TaskResponseDTO> getAllTasks() {
-        return taskRepository.findAllTasks().stream()
+    /**
+     * Writes the readable tasks as a JSON array while reading them from a database cursor, so neither the tasks
+     * nor the response are ever held in memory as a whole. The tasks come out of the cache already serialized,
+     * their bytes are copied to the response as they are.
+     */
+    @Transactional(readOnly = true)
+    public void writeAllTasks(OutputStream out) throws IOException {
+        try (Stream<TaskListRow> tasks = taskRepository.streamAllTasks()) {
+            Iterator<TaskListRow> rows = tasks.iterator();
+            out.write('[');
+            while (rows.hasNext()) {
+                out.write(taskJsonCache.json(rows.next()));
+                if (rows.hasNext()) {
+                    out.write(',');
+                }
+            }
+            out.write(']');
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> getTasksDueBetween(String username, LocalDate from, LocalDate to) {
+        return taskRepository.findRowsDueBetween(username, from, to).stream()
+                .map(taskMapper::toResponseDto).toList();
+    }
+
+    // Every write to a user's tasks, including deletes, advances the user's change sequence
+    @Transactional(readOnly = true)
+    public String getTaskListETag(String username) {
+        return userRepository.findChangeSeqByUsername(username)
+                .map(sequence -> "\"tasks-" + sequence + "\"")
+                .orElse(null);
+    }
+
+    // Only owned tasks get an ETag, anything else takes the regular (ACL-checked) path
+    @Transactional(readOnly = true)
+    public String getTaskETag(String username, Long id) {
+        return taskRepository.findChangeSeqByIdAndUsername(id, username)
+                .map(sequence -> "\"task-" + id + "-" + sequence + "\"")
+                .orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskChangesDTO getChanges(String username, long since) {
+        // Read before the changes: whatever commits in between is returned now and again by the next sync
+        long sequence = userRepository.findChangeSeqByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        List<TaskResponseDTO> upserts = taskRepository.findChangedSince(username, since).stream()
                 .map(taskMapper::toResponseDto).toList();
+        // A full sync starts from an empty cache, there is nothing to delete
+        List<Long> deleted = since == 0 ? List.of() : taskRepository.findDeletedSince(username, since);
+        return new TaskChangesDTO(sequence, upserts, deleted);
     }
 
     @PostAuthorize("hasPermission(#id, 'tyler.server.entity.Task', 'read')")
+    @Transactional(readOnly = true)
     public TaskResponseDTO getTaskById(Long id) {
         Task task = findTaskById(id);
         return taskMapper.toResponseDto(task);
@@ -66,25 +156,62 @@ public class TaskService {
         Task task = taskMapper.toTask(request);
 
         setTaskPriority(task, request.priorityId());
-        task.setRemainingXp(task.getPriority().getXp());
-        user.addTask(task);
+        Task parent = request.parentId() != null ? findParentById(request.parentId()) : null;
+        prepareNewTask(user, task, parent);
 
-        if (request.parentId() != null) {
-            linkToParent(task, request.parentId());
-        }
-
-        validator.validate(task);
         task = taskRepository.save(task);
 
         createAclForTask(task, user);
+
+        publishCreated(task);
         return task.getId();
     }
 
     @PostAuthorize("hasPermission(#id, 'tyler.server.entity.Task', 'write')")
     @Transactional
     public void updateTask(Long id, @Valid TaskRequestDTO request) {
-        Task existing = findTaskById(id);
+        applyUpdate(findTaskById(id), request, this::findPriorityById, this::findParentById);
+    }
 
+    @PostAuthorize("hasPermission(#id, 'tyler.server.entity.Task', 'write')")
+    @Transactional
+    public void markTaskAsDone(Long id) {
+        complete(findTaskById(id));
+    }
+
+    // Authorized inside the method, a @PostAuthorize check would only run once the task's ACL is gone
+    @Transactional
+    public void deleteTask(Long id) {
+        Task task = findTaskById(id);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!permissionEvaluator.hasPermission(authentication, id, Task.class.getName(), "delete")) {
+            throw new AccessDeniedException("Access Denied");
+        }
+        remove(task);
+    }
+
+    // The methods below work on tasks the caller has already loaded and authorized, they are shared with TaskBatchService
+
+    public void prepareNewTask(User user, Task task, Task parent) {
+        task.setRemainingXp(task.getPriority().getXp());
+        user.addTask(task);
+
+        if (parent != null) {
+            parent.addSubtask(task);
+        }
+
+        validator.validate(task);
+    }
+
+    public void publishCreated(Task task) {
+        publishTaskChange(task, TaskChangedEvent.Change.CREATED);
+        if (task.getParent() != null) {
+            publishTaskChange(task.getParent(), TaskChangedEvent.Change.UPDATED);
+        }
+    }
+
+    public void applyUpdate(Task existing, TaskRequestDTO request,
+                            Function<Long, Priority> priorities, Function<Long, Task> parents) {
         byte oldRemainingXp = existing.getRemainingXp();
         byte oldPriorityXp = existing.getPriority().getXp();
 
@@ -95,29 +222,27 @@ public class TaskService {
             User user = existing.getUser();
             user.setCurrentXp(user.getCurrentXp() - existing.getRemainingXp());
             existing.setRemainingXp((byte) 0);
+            eventPublisher.publishEvent(ProgressChangedEvent.of(user));
         }
 
         existing.setDueDate(request.dueDate());
         existing.setDeadline(request.deadline());
 
-        setTaskPriority(existing, request.priorityId());
+        existing.setPriority(priorities.apply(request.priorityId()));
 
         if (oldRemainingXp == oldPriorityXp) {
             existing.setRemainingXp(existing.getPriority().getXp());
         }
 
         if (request.parentId() != null) {
-            linkToParent(existing, request.parentId());
+            parents.apply(request.parentId()).addSubtask(existing);
         }
 
         validator.validate(existing);
+        publishTaskChange(existing, TaskChangedEvent.Change.UPDATED);
     }
 
-    @PostAuthorize("hasPermission(#id, 'tyler.server.entity.Task', 'write')")
-    @Transactional
-    public void markTaskAsDone(Long id) {
-        Task task = findTaskById(id);
-
+    public void complete(Task task) {
         if (task.isDone()) {
             throw new IllegalStateException("Task is already marked as done");
         }
@@ -134,19 +259,56 @@ public class TaskService {
         task.getSubtasks().forEach(subtask -> {
             subtask.setDone(true);
         });
+
+        publishTaskChange(task, TaskChangedEvent.Change.DONE);
+        publishSubtasksDone(task.getSubtasks());
+        if (parent != null) {
+            publishTaskChange(parent, TaskChangedEvent.Change.UPDATED);
+        }
     }
 
-    @PostAuthorize("hasPermission(#id, 'tyler.server.entity.Task', 'delete')")
-    @Transactional
-    public void deleteTask(Long id) {
-        Task task = findTaskById(id);
+    public void remove(Task task) {
+        Long id = task.getId();
+        List<Long> subtreeIds = taskAclRepository.deleteAcls(List.of(id));
+        String username = task.getUser().getUsername();
+        // The subtasks at every depth go with the task
+        subtreeIds.stream()
+                .filter(subtreeId -> !subtreeId.equals(id))
+                .forEach(subtreeId -> eventPublisher.publishEvent(TaskChangedEvent.deleted(username, subtreeId)));
         task.getSubtasks().clear();
 
-        if (task.getParent() != null) {
-            task.getParent().removeSubtask(task);
+        Task parent = task.getParent();
+        if (parent != null) {
+            parent.removeSubtask(task);
         }
 
         taskRepository.deleteById(id);
+
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(username, id));
+        if (parent != null) {
+            publishTaskChange(parent, TaskChangedEvent.Change.UPDATED);
+        }
+    }
+
+    // Counts the subtasks of the subtasks in one query instead of loading them one subtask at a time
+    private void publishSubtasksDone(List<Task> subtasks) {
+        if (subtasks.stream().allMatch(subtask -> Hibernate.isInitialized(subtask.getSubtasks()))) {
+            subtasks.forEach(subtask -> publishTaskChange(subtask, TaskChangedEvent.Change.DONE));
+            return;
+        }
+        Map<Long, Long> counts = taskRepository.countSubtasksByParentIdIn(subtasks.stream().map(Task::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(SubtaskCount::parentId, SubtaskCount::subtasks));
+        for (Task subtask : subtasks) {
+            int count = counts.getOrDefault(subtask.getId(), 0L).intValue();
+            eventPublisher.publishEvent(new TaskChangedEvent(subtask.getUser().getUsername(),
+                    TaskChangedEvent.Change.DONE, subtask.getId(), taskMapper.toResponseDto(subtask, count)));
+        }
+    }
+
+    private void publishTaskChange(Task task, TaskChangedEvent.Change change) {
+        eventPublisher.publishEvent(new TaskChangedEvent(
+                task.getUser().getUsername(), change, task.getId(), taskMapper.toResponseDto(task)));
     }
 
     private Task findTaskById(Long id) {
@@ -158,19 +320,20 @@ public class TaskService {
         return new ResourceNotFoundException("Task with ID " + id + " does not exist");
     }
 
-    private void linkToParent(Task task, Long parentId) {
-        Task parent = taskRepository.findById(parentId)
+    private Task findParentById(Long parentId) {
+        return taskRepository.findById(parentId)
                 .orElseThrow(() -> new ConstraintViolationException(
                         "Parent Task with ID " + parentId + " does not exist", null));
-        parent.addSubtask(task);
     }
 
     private void setTaskPriority(Task task, Long priorityId) {
-        task.setPriority(
-                priorityRepository.findById(priorityId)
-                        .orElseThrow(() -> new ConstraintViolationException(
-                                "Priority with ID " + priorityId + " does not exist", null))
-        );
+        task.setPriority(findPriorityById(priorityId));
+    }
+
+    private Priority findPriorityById(Long priorityId) {
+        return priorityRepository.findById(priorityId)
+                .orElseThrow(() -> new ConstraintViolationException(
+                        "Priority with ID " + priorityId + " does not exist", null));
     }
 
     private void createAclForTask(Task task, User user) {
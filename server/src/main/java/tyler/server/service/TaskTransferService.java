@@ -0,0 +1,234 @@
+package tyler.server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tyler.server.dto.task.TaskExportDTO;
+import tyler.server.dto.task.TaskImportResultDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.Task;
+import tyler.server.entity.User;
+import tyler.server.exception.BusinessValidationException;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.TaskAclRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Moves a user's tasks in and out as NDJSON, one task per line. Neither direction holds more than a chunk of
+ * entities: the export streams a projection from a database cursor, the import flushes and clears the persistence
+ * context every {@value #CHUNK_SIZE} tasks. Imported tasks are not pushed as events, clients pick them up with
+ * the next delta sync.
+ */
+@Service
+public class TaskTransferService {
+    private static final int CHUNK_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final PriorityRepository priorityRepository;
+    private final UserRepository userRepository;
+    private final TaskAclRepository taskAclRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public TaskTransferService(
+            TaskRepository taskRepository,
+            PriorityRepository priorityRepository,
+            UserRepository userRepository,
+            TaskAclRepository taskAclRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            Validator validator) {
+        this.taskRepository = taskRepository;
+        this.priorityRepository = priorityRepository;
+        this.userRepository = userRepository;
+        this.taskAclRepository = taskAclRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTasks(String username, OutputStream out) throws IOException {
+        try (Stream<TaskExportDTO> tasks = taskRepository.streamExportByUsername(username)) {
+            Iterator<TaskExportDTO> lines = tasks.iterator();
+            if (!lines.hasNext()) {
+                return;
+            }
+            // Flushing per line would push every task to the socket on its own
+            SequenceWriter writer = objectMapper.writerFor(TaskExportDTO.class)
+                    .withRootValueSeparator("\n")
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValues(out);
+            while (lines.hasNext()) {
+                writer.write(lines.next());
+            }
+            writer.close();
+            out.write('\n');
+        }
+    }
+
+    @Transactional
+    public TaskImportResultDTO importTasks(String username, InputStream in) throws IOException {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        Long userId = user.getId();
+        Map<Long, Byte> priorityXp = new HashMap<>();
+        priorityRepository.findAll().forEach(priority -> priorityXp.put(priority.getId(), priority.getXp()));
+
+        // Keyed by the ids in the file, in file order so that errors point at the first offending line
+        Map<Long, ImportedTask> imported = new HashMap<>();
+        Map<Long, Long> parentIds = new LinkedHashMap<>();
+        List<Task> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (MappingIterator<TaskExportDTO> lines = objectMapper.readerFor(TaskExportDTO.class).readValues(in)) {
+            while (lines.hasNextValue()) {
+                TaskExportDTO record = lines.nextValue();
+                int line = lines.getCurrentLocation().getLineNr();
+                validate(record, line, priorityXp);
+                if (imported.containsKey(record.id())) {
+                    throw new IllegalArgumentException("Line " + line + ": Task ID " + record.id() + " appears more than once");
+                }
+
+                Task task = Task.builder()
+                        .user(entityManager.getReference(User.class, userId))
+                        .priority(entityManager.getReference(Priority.class, record.priorityId()))
+                        .name(record.name())
+                        .description(record.description())
+                        .dueDate(record.dueDate())
+                        .deadline(record.deadline())
+                        .remainingXp(record.remainingXp())
+                        .done(record.done())
+                        .build();
+                entityManager.persist(task);
+
+                imported.put(record.id(), new ImportedTask(task.getId(), line, record.dueDate(), record.deadline(),
+                        record.remainingXp()));
+                if (record.parentId() != null) {
+                    parentIds.put(record.id(), record.parentId());
+                }
+                chunk.add(task);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(username, chunk);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed task at line " + e.getLocation().getLineNr() + ": " + e.getOriginalMessage());
+        }
+        writeChunk(username, chunk);
+
+        // Parents may come after their subtasks in the file, so the links are set once every task has its id
+        linkParents(imported, parentIds);
+        return new TaskImportResultDTO(imported.size());
+    }
+
+    private void validate(TaskExportDTO record, int line, Map<Long, Byte> priorityXp) {
+        Set<ConstraintViolation<TaskExportDTO>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException("Line " + line + ": " + violations.iterator().next().getMessage(), violations);
+        }
+        Byte xp = priorityXp.get(record.priorityId());
+        if (xp == null) {
+            throw new ConstraintViolationException("Line " + line + ": Priority with ID " + record.priorityId() + " does not exist", null);
+        }
+        if (record.remainingXp() > xp) {
+            throw new ConstraintViolationException("Line " + line + ": Remaining xp cannot exceed the priority's xp", null);
+        }
+    }
+
+    private void writeChunk(String username, List<Task> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        taskAclRepository.createOwnerAcls(username, chunk.stream().map(Task::getId).toList());
+        entityManager.clear();
+        chunk.clear();
+    }
+
+    private void linkParents(Map<Long, ImportedTask> imported, Map<Long, Long> parentIds) {
+        Set<Long> acyclic = new HashSet<>();
+        Map<Long, Integer> subtaskXp = new HashMap<>();
+        List<Long> ids = new ArrayList<>(CHUNK_SIZE);
+        List<Long> parents = new ArrayList<>(CHUNK_SIZE);
+        for (Map.Entry<Long, Long> link : parentIds.entrySet()) {
+            Long parentId = link.getValue();
+            ImportedTask parent = imported.get(parentId);
+            if (parent == null) {
+                throw new ConstraintViolationException("Parent Task with ID " + parentId + " is not part of the import", null);
+            }
+            requireAcyclic(link.getKey(), parentIds, acyclic);
+            ImportedTask task = imported.get(link.getKey());
+            validateSubtask(task, parent, subtaskXp.merge(parentId, (int) task.remainingXp(), Integer::sum));
+
+            ids.add(task.id());
+            parents.add(parent.id());
+            if (ids.size() == CHUNK_SIZE) {
+                taskRepository.linkParents(ids.toArray(Long[]::new), parents.toArray(Long[]::new));
+                ids.clear();
+                parents.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            taskRepository.linkParents(ids.toArray(Long[]::new), parents.toArray(Long[]::new));
+        }
+    }
+
+    // The rules of TaskValidator, checked against the records since the tasks themselves are no longer loaded
+    private void validateSubtask(ImportedTask task, ImportedTask parent, int parentSubtaskXp) {
+        if (task.dueDate() != null && parent.dueDate() != null && task.dueDate().isAfter(parent.dueDate())) {
+            throw new ConstraintViolationException(
+                    "Line " + task.line() + ": Subtask due date cannot be later than parent's due date", null);
+        }
+        if (task.deadline().isAfter(parent.deadline())) {
+            throw new ConstraintViolationException(
+                    "Line " + task.line() + ": Deadline cannot be after parent task's deadline", null);
+        }
+        if (parentSubtaskXp > parent.remainingXp()) {
+            throw new BusinessValidationException("Line " + task.line() + ": Subtask xp cannot exceed parent's xp");
+        }
+    }
+
+    private void requireAcyclic(Long id, Map<Long, Long> parentIds, Set<Long> acyclic) {
+        Set<Long> path = new HashSet<>();
+        for (Long current = id; current != null && !acyclic.contains(current); current = parentIds.get(current)) {
+            if (!path.add(current)) {
+                throw new ConstraintViolationException("Task with ID " + current + " is its own ancestor", null);
+            }
+        }
+        acyclic.addAll(path);
+    }
+
+    /**
+     * What linking the parents needs to know about an imported task, its database id and the fields the tree rules
+     * compare.
+     */
+    private record ImportedTask(Long id, int line, LocalDate dueDate, LocalDate deadline, byte remainingXp) {
+    }
+}
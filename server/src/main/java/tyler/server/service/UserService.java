@@ -1,7 +1,7 @@
 package tyler.server.service;
 
-import jakarta.transaction.Transactional;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,9 +10,13 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import tyler.server.entity.User;
+import tyler.server.event.DaysOffChangedEvent;
+import tyler.server.repository.TaskRepository;
 import tyler.server.repository.UserRepository;
+import tyler.server.security.AuthenticatedUser;
 import tyler.server.validation.constraints.currentweek.CurrentWeek;
 
 import java.time.LocalDate;
@@ -22,18 +26,24 @@ import java.util.List;
 @Validated
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
     private final ProgressService progressService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository, ProgressService progressService) {
+    public UserService(UserRepository userRepository, TaskRepository taskRepository, ProgressService progressService,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
         this.progressService = progressService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getUsername(),
                 user.getPasswordHash(),
                 List.of(new SimpleGrantedAuthority("ROLE_USER"))
@@ -45,6 +55,18 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    @Transactional(readOnly = true)
+    public User getProfile(String username) {
+        return findByUsername(username);
+    }
+
+    @Transactional(readOnly = true)
+    public String getProfileETag(String username) {
+        return userRepository.findProfileVersionByUsername(username)
+                .map(version -> "\"profile-" + version + "\"")
+                .orElse(null);
+    }
+
     public User getUserFromJwt(Jwt jwt) {
         String username = jwt.getSubject();
         return findByUsername(username);
@@ -60,12 +82,13 @@ public class UserService implements UserDetailsService {
         if (user.getDaysOff().contains(dayOff)) {
             throw new IllegalStateException("Day off already set for this date");
         }
-        if (user.getTasks().stream().anyMatch(task -> task.getDeadline().isEqual(dayOff))) {
+        if (taskRepository.existsByUserAndDeadline(user, dayOff)) {
             throw new IllegalStateException("Cannot take a day off if you have a deadline on that day");
         }
         user.getDaysOff().add(dayOff);
         user.setDaysOffPerWeek(--daysOffPerWeek);
         progressService.relocateTasksForOffDays(user);
+        eventPublisher.publishEvent(DaysOffChangedEvent.of(user));
     }
 
     public void removeDayOff(String username, @CurrentWeek LocalDate dayOff) {
@@ -79,6 +102,7 @@ public class UserService implements UserDetailsService {
         user.setDaysOffPerWeek((byte) (user.getDaysOffPerWeek() + 1));
         userRepository.save(user);
         progressService.relocateTasksForOffDays(user);
+        eventPublisher.publishEvent(DaysOffChangedEvent.of(user));
     }
 
     @EventListener(ApplicationReadyEvent.class)
@@ -89,6 +113,7 @@ public class UserService implements UserDetailsService {
                 .forEach(user -> {
                     user.getDaysOff().removeIf(dayOff -> dayOff.isBefore(now));
                     userRepository.save(user);
+                    eventPublisher.publishEvent(DaysOffChangedEvent.of(user));
                 });
     }
 
@@ -98,6 +123,7 @@ public class UserService implements UserDetailsService {
             user.setDaysOffPerWeek((byte) 2);
             user.getDaysOff().clear();
             userRepository.save(user);
+            eventPublisher.publishEvent(DaysOffChangedEvent.of(user));
         });
     }
 }
@@ -3,15 +3,19 @@ package tyler.server.validation.constraints.consistentdates;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import tyler.server.entity.Task;
+import tyler.server.dto.task.TaskExportDTO;
 import tyler.server.dto.task.TaskRequestDTO;
 
+import java.time.LocalDate;
+
 public class ConsistentTaskDatesValidator implements ConstraintValidator<ConsistentTaskDates, Object> {
     @Override
     public boolean isValid(Object value, ConstraintValidatorContext context) {
         context.disableDefaultConstraintViolation();
         return switch (value) {
             case Task task -> validateTask(task, context);
-            case TaskRequestDTO dto -> validateTaskDTO(dto, context);
+            case TaskRequestDTO dto -> validateDates(dto.dueDate(), dto.deadline(), context);
+            case TaskExportDTO dto -> validateDates(dto.dueDate(), dto.deadline(), context);
             case null, default -> true;
         };
     }
@@ -29,9 +33,9 @@ public class ConsistentTaskDatesValidator implements ConstraintValidator<Consist
         return true;
     }
 
-    private boolean validateTaskDTO(TaskRequestDTO dto, ConstraintValidatorContext context) {
-        if (dto.dueDate() != null && dto.deadline() != null &&
-                dto.dueDate().isAfter(dto.deadline())) {
+    private boolean validateDates(LocalDate dueDate, LocalDate deadline, ConstraintValidatorContext context) {
+        if (dueDate != null && deadline != null &&
+                dueDate.isAfter(deadline)) {
             context.buildConstraintViolationWithTemplate(
                             "Due date cannot be after task's deadline")
                     .addPropertyNode("dueDate")
@@ -0,0 +1,91 @@
+package tyler.server.web;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Bounds the requests in flight by a limit that adapts to the observed latency (additive increase, multiplicative
+ * decrease): every response within the target latency raises the limit by about one per limit's worth of
+ * responses, a slower or overloaded response cuts it by the backoff factor. Cuts are spaced by the target latency,
+ * so a burst of slow responses caused by one overload only counts once. Like the increase, the cut for a slow
+ * response needs the limit to be in use, on a mostly idle server a slow request is slow by itself.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration targetLatency, long nowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+        this.lastDecrease = new AtomicLong(nowNanos - targetLatencyNanos);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a slot taken by {@link #tryAcquire()}.
+     *
+     * @param overloaded whether the request failed for lack of capacity, e.g. no database connection was free
+     */
+    public void release(long latencyNanos, boolean overloaded, long nowNanos) {
+        // Only adapts while the limit is actually used, an idle server has no evidence for a higher or lower one
+        boolean used = inFlight.getAndDecrement() * 2 >= limit();
+        if (overloaded || (used && latencyNanos > targetLatencyNanos)) {
+            decrease(nowNanos);
+        } else if (used) {
+            updateLimit(limit -> Math.min(maxLimit, limit + 1 / limit));
+        }
+    }
+
+    /**
+     * Gives back a slot taken by {@link #tryAcquire()} without a latency sample, for requests that take long by
+     * design, such as exports or responses streamed to a slow client.
+     *
+     * @param overloaded whether the request failed for lack of capacity, e.g. no database connection was free
+     */
+    public void releaseUnmeasured(boolean overloaded, long nowNanos) {
+        inFlight.decrementAndGet();
+        if (overloaded) {
+            decrease(nowNanos);
+        }
+    }
+
+    public int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void decrease(long nowNanos) {
+        long last = lastDecrease.get();
+        if (nowNanos - last >= targetLatencyNanos && lastDecrease.compareAndSet(last, nowNanos)) {
+            updateLimit(limit -> Math.max(minLimit, limit * BACKOFF));
+        }
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        limitBits.updateAndGet(bits -> Double.doubleToLongBits(update.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
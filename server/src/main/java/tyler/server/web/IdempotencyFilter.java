@@ -0,0 +1,211 @@
+package tyler.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+/**
+ * Makes retries of the task writes safe: a request carrying an {@code Idempotency-Key} header is executed once
+ * per user and key, repeats get the stored response without running it again. A repeat that arrives while the
+ * first request still runs gets 409, reusing a key for a different request gets 422. Server errors aren't
+ * stored, so the request can be retried with the same key.
+ * <p>
+ * Keys are kept in memory for {@code idempotency.ttl}, per node. The store is bounded by the bytes it holds
+ * ({@code idempotency.max-size}): a request is remembered by the digest of its body, only the response is kept
+ * as it is. Bodies above {@code idempotency.max-body} are rejected with 413 before anything is read into memory.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotency-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    // Rough bytes per stored entry besides its strings and body: the key, the entry, the digest and the map node
+    private static final int ENTRY_OVERHEAD = 200;
+
+    private final RequestMatcher idempotentRequests = new OrRequestMatcher(
+            new AntPathRequestMatcher("/tasks", "POST"),
+            new AntPathRequestMatcher("/tasks/batch", "POST"),
+            new AntPathRequestMatcher("/tasks/*/done", "PATCH"));
+    private final Cache<Key, Entry> entries;
+    private final ObjectMapper objectMapper;
+    private final long maxBodyBytes;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter inFlight;
+    private final Counter mismatched;
+
+    public IdempotencyFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                             @Value("${idempotency.max-size:64MB}") DataSize maxSize,
+                             @Value("${idempotency.max-body:1MB}") DataSize maxBody) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> ENTRY_OVERHEAD + key.weight() + entry.weight())
+                .build();
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = maxBody.toBytes();
+        this.executed = outcomeCounter(meterRegistry, "executed");
+        this.replayed = outcomeCounter(meterRegistry, "replayed");
+        this.inFlight = outcomeCounter(meterRegistry, "in_flight");
+        this.mismatched = outcomeCounter(meterRegistry, "mismatched");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("http.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null || !idempotentRequests.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeProblem(response, HttpStatus.BAD_REQUEST, HEADER + " must have 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        // The declared length can be missing or wrong, the read stops one byte past the limit either way
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+                ? null
+                : request.getInputStream().readNBytes((int) maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            writeProblem(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with an " + HEADER + " cannot exceed " + maxBodyBytes + " bytes");
+            return;
+        }
+        byte[] fingerprint = fingerprint(request, body);
+        Key key = new Key(authentication.getName(), idempotencyKey);
+
+        Entry previous = entries.asMap().putIfAbsent(key, new InFlight(fingerprint));
+        if (previous != null) {
+            answerRepeat(previous, fingerprint, response);
+            return;
+        }
+        executed.increment();
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+            if (cachingResponse.getStatus() < 500) {
+                entries.put(key, new Completed(fingerprint, cachingResponse.getStatus(),
+                        cachingResponse.getContentType(), cachingResponse.getHeader(HttpHeaders.LOCATION),
+                        cachingResponse.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                entries.invalidate(key);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private void answerRepeat(Entry previous, byte[] fingerprint, HttpServletResponse response) throws IOException {
+        if (!MessageDigest.isEqual(previous.fingerprint(), fingerprint)) {
+            mismatched.increment();
+            writeProblem(response, HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+            return;
+        }
+        switch (previous) {
+            case InFlight ignored -> {
+                inFlight.increment();
+                writeProblem(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still being processed");
+            }
+            case Completed completed -> {
+                replayed.increment();
+                response.setStatus(completed.status());
+                response.setHeader(REPLAYED_HEADER, "true");
+                if (completed.contentType() != null) {
+                    response.setContentType(completed.contentType());
+                }
+                if (completed.location() != null) {
+                    response.setHeader(HttpHeaders.LOCATION, completed.location());
+                }
+                response.setContentLength(completed.body().length);
+                response.getOutputStream().write(completed.body());
+            }
+        }
+    }
+
+    private void writeProblem(HttpServletResponse response, HttpStatus status, String detail) throws IOException {
+        Problems.write(objectMapper, response, status, detail);
+    }
+
+    private static byte[] fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            return digest.digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int weight(String value) {
+        return value == null ? 0 : 2 * value.length();
+    }
+
+    private record Key(String principal, String idempotencyKey) {
+        int weight() {
+            return IdempotencyFilter.weight(principal) + IdempotencyFilter.weight(idempotencyKey);
+        }
+    }
+
+    private sealed interface Entry permits InFlight, Completed {
+        byte[] fingerprint();
+
+        int weight();
+    }
+
+    private record InFlight(byte[] fingerprint) implements Entry {
+        @Override
+        public int weight() {
+            return 0;
+        }
+    }
+
+    private record Completed(byte[] fingerprint, int status, String contentType, String location, byte[] body)
+            implements Entry {
+        @Override
+        public int weight() {
+            return IdempotencyFilter.weight(contentType) + IdempotencyFilter.weight(location) + body.length;
+        }
+    }
+}
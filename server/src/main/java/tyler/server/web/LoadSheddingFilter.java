@@ -0,0 +1,133 @@
+package tyler.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Turns requests away with 503 once the adaptive concurrency limit is reached, so that under overload requests
+ * fail fast instead of queueing for database connections until they time out. The limit follows the latency of
+ * the responses, and a 503 from an exhausted connection pool counts as overload. Imports, batches and streamed
+ * responses take long by design, they hold a slot but leave their latency out.
+ */
+@Component
+@Order(1)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    private static final Set<String> BULK_URIS = Set.of("/tasks/import", "/tasks/batch");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public LoadSheddingFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${load-shedding.initial-limit:20}") int initialLimit,
+                              @Value("${load-shedding.min-limit:4}") int minLimit,
+                              @Value("${load-shedding.max-limit:200}") int maxLimit,
+                              @Value("${load-shedding.target-latency:PT0.5S}") Duration targetLatency) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, targetLatency, System.nanoTime());
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("http.load-shedding.rejected")
+                .description("Requests rejected with 503 by the concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.load-shedding.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Requests allowed in flight")
+                .register(meterRegistry);
+        Gauge.builder("http.load-shedding.in-flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Probes must get through an overload, event streams stay open for minutes without doing work
+        return request.getRequestURI().startsWith("/actuator/")
+                || (HttpMethod.GET.matches(request.getMethod()) && request.getRequestURI().equals("/events"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            Problems.write(objectMapper, response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry later");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean measured = !BULK_URIS.contains(request.getRequestURI());
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streamed responses are written after the filter returns, they hold their slot until done, but
+                // how long that takes depends on the size of the response and the speed of the client
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(response));
+                async = true;
+            }
+        } finally {
+            if (!async && measured) {
+                release(start, response);
+            } else if (!async) {
+                releaseUnmeasured(response);
+            }
+        }
+    }
+
+    private void release(long start, HttpServletResponse response) {
+        long now = System.nanoTime();
+        limiter.release(now - start, overloaded(response), now);
+    }
+
+    private void releaseUnmeasured(HttpServletResponse response) {
+        limiter.releaseUnmeasured(overloaded(response), System.nanoTime());
+    }
+
+    private static boolean overloaded(HttpServletResponse response) {
+        return response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    private class ReleaseOnCompletion implements AsyncListener {
+        private final HttpServletResponse response;
+
+        ReleaseOnCompletion(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            releaseUnmeasured(response);
+        }
+
+        // Timeouts and errors are followed by onComplete as well
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package tyler.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits every client with a token bucket. Login and registration are limited per IP address and much tighter,
+ * each of them hashes a password. Everything else, refreshing and logging out included, is limited per user once
+ * signed in, per IP address before. The buckets live in a bounded map that drops them once idle; a dropped bucket was full anyway.
+ * Runs before the other filters of the application, right after authentication.
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "rate-limit.enabled", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Set<String> AUTH_URIS = Set.of("/auth/login", "/auth/register");
+
+    private final Cache<String, TokenBucket> buckets;
+    private final ObjectMapper objectMapper;
+    private final Limit authLimit;
+    private final Limit userLimit;
+    private final Counter authRejected;
+    private final Counter userRejected;
+
+    public RateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${rate-limit.auth.capacity:10}") int authCapacity,
+                           @Value("${rate-limit.auth.per-second:0.2}") double authPerSecond,
+                           @Value("${rate-limit.user.capacity:100}") int userCapacity,
+                           @Value("${rate-limit.user.per-second:20}") double userPerSecond,
+                           @Value("${rate-limit.idle:PT10M}") Duration idle,
+                           @Value("${rate-limit.max-clients:100000}") long maxClients) {
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idle)
+                .maximumSize(maxClients)
+                .build();
+        this.objectMapper = objectMapper;
+        this.authLimit = new Limit("auth", authCapacity, authPerSecond);
+        this.userLimit = new Limit("user", userCapacity, userPerSecond);
+        this.authRejected = rejectedCounter(meterRegistry, authLimit);
+        this.userRejected = rejectedCounter(meterRegistry, userLimit);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, Limit limit) {
+        return Counter.builder("http.rate-limit.rejected")
+                .description("Requests rejected with 429 by the rate limit")
+                .tag("limit", limit.name())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Probes and scrapes must never be turned away
+        return request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean auth = AUTH_URIS.contains(request.getRequestURI());
+        Limit limit = auth ? authLimit : userLimit;
+        String client = auth ? request.getRemoteAddr() : client(request);
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(limit.name() + " " + client,
+                key -> new TokenBucket(limit.capacity(), limit.perSecond(), now));
+        long waitNanos = bucket.tryTake(now);
+        if (waitNanos > 0) {
+            (auth ? authRejected : userRejected).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+            Problems.write(objectMapper, response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please slow down");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return request.getRemoteAddr();
+        }
+        return "user:" + authentication.getName();
+    }
+
+    private record Limit(String name, int capacity, double perSecond) {
+    }
+}
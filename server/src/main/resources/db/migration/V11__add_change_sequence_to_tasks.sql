@@ -0,0 +1,107 @@
+-- Every task write stamps the next value of its owner's change sequence, deletes leave a tombstone,
+-- so clients can sync with GET /tasks/changes?since=<sequence>.
+ALTER TABLE app_user
+    ADD change_seq BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE task
+    ADD change_seq BIGINT NOT NULL DEFAULT 0;
+
+-- Existing tasks get their owner's first sequence values, so that a full sync (since=0) includes them
+UPDATE task
+SET change_seq = numbered.change_seq
+FROM (SELECT id, row_number() OVER (PARTITION BY user_id ORDER BY id) AS change_seq
+      FROM task
+      WHERE user_id IS NOT NULL) numbered
+WHERE task.id = numbered.id;
+
+UPDATE app_user
+SET change_seq = stamped.change_seq
+FROM (SELECT user_id, MAX(change_seq) AS change_seq
+      FROM task
+      WHERE user_id IS NOT NULL
+      GROUP BY user_id) stamped
+WHERE app_user.id = stamped.user_id;
+
+CREATE INDEX task_user_change_seq_idx ON task (user_id, change_seq);
+
+CREATE TABLE task_tombstone
+(
+    task_id    BIGINT NOT NULL,
+    user_id    BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_task_tombstone PRIMARY KEY (task_id),
+    CONSTRAINT fk_task_tombstone_on_user FOREIGN KEY (user_id) REFERENCES app_user (id) ON DELETE CASCADE
+);
+
+CREATE INDEX task_tombstone_user_change_seq_idx ON task_tombstone (user_id, change_seq);
+
+-- Incrementing the counter locks the user row until commit, so a user's sequence values become visible in order
+CREATE FUNCTION next_user_change_seq(p_user_id BIGINT) RETURNS BIGINT AS
+$$
+UPDATE app_user
+SET change_seq = change_seq + 1
+WHERE id = p_user_id
+RETURNING change_seq;
+$$ LANGUAGE sql;
+
+CREATE FUNCTION stamp_task_change() RETURNS trigger AS
+$$
+BEGIN
+    IF NEW.user_id IS NOT NULL THEN
+        NEW.change_seq := next_user_change_seq(NEW.user_id);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_stamp_change
+    BEFORE INSERT OR UPDATE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION stamp_task_change();
+
+-- A parent's subtask count is part of its representation, so adding, removing or moving a subtask touches the parent
+CREATE FUNCTION touch_task_parents() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.parent_id IS NOT NULL THEN
+        UPDATE task SET change_seq = change_seq WHERE id = OLD.parent_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.parent_id IS NOT NULL THEN
+        UPDATE task SET change_seq = change_seq WHERE id = NEW.parent_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_touch_parent_on_insert_or_delete
+    AFTER INSERT OR DELETE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION touch_task_parents();
+
+CREATE TRIGGER task_touch_parent_on_relink
+    AFTER UPDATE OF parent_id
+    ON task
+    FOR EACH ROW
+    WHEN (OLD.parent_id IS DISTINCT FROM NEW.parent_id)
+EXECUTE FUNCTION touch_task_parents();
+
+CREATE FUNCTION record_task_tombstone() RETURNS trigger AS
+$$
+BEGIN
+    IF OLD.user_id IS NOT NULL THEN
+        INSERT INTO task_tombstone (task_id, user_id, change_seq)
+        VALUES (OLD.id, OLD.user_id, next_user_change_seq(OLD.user_id))
+        ON CONFLICT (task_id) DO UPDATE SET change_seq = EXCLUDED.change_seq, deleted_at = NOW();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_record_tombstone
+    AFTER DELETE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION record_task_tombstone();
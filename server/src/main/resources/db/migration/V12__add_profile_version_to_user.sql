@@ -0,0 +1,40 @@
+-- Versions the GET /users/me representation for ETags: bumped whenever a profile column or a day off changes.
+ALTER TABLE app_user
+    ADD profile_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE FUNCTION bump_profile_version() RETURNS trigger AS
+$$
+BEGIN
+    IF (NEW.current_xp, NEW.daily_xp_quota, NEW.current_streak, NEW.last_achieved_date, NEW.days_off_per_week)
+        IS DISTINCT FROM
+       (OLD.current_xp, OLD.daily_xp_quota, OLD.current_streak, OLD.last_achieved_date, OLD.days_off_per_week) THEN
+        NEW.profile_version := OLD.profile_version + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER app_user_bump_profile_version
+    BEFORE UPDATE
+    ON app_user
+    FOR EACH ROW
+EXECUTE FUNCTION bump_profile_version();
+
+CREATE FUNCTION bump_profile_version_on_days_off() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE app_user SET profile_version = profile_version + 1 WHERE id = OLD.user_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE app_user SET profile_version = profile_version + 1 WHERE id = NEW.user_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER days_off_bump_profile_version
+    AFTER INSERT OR UPDATE OR DELETE
+    ON days_off
+    FOR EACH ROW
+EXECUTE FUNCTION bump_profile_version_on_days_off();
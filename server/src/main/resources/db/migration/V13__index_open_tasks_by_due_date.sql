@@ -0,0 +1,2 @@
+-- Toggling a day off only reads the user's open tasks due on a day off
+CREATE INDEX task_user_open_due_date_idx ON task (user_id, due_date) WHERE done = false;
@@ -0,0 +1,2 @@
+-- The task list counts each task's subtasks per row, deleting a task walks its subtree
+CREATE INDEX task_parent_id_idx ON task (parent_id);
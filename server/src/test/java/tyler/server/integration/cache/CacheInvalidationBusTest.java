@@ -0,0 +1,63 @@
+package tyler.server.integration.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
+import org.springframework.security.acls.jdbc.JdbcMutableAclService;
+import org.springframework.security.acls.model.AclCache;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tyler.server.cache.CacheInvalidationBus;
+import tyler.server.entity.Task;
+import tyler.server.integration.resource.BaseResourceTest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class CacheInvalidationBusTest extends BaseResourceTest {
+    private final ObjectIdentity invalidated = new ObjectIdentityImpl(Task.class, 424_242L);
+    private final ObjectIdentity untouched = new ObjectIdentityImpl(Task.class, 424_243L);
+
+    @Autowired
+    private JdbcMutableAclService aclService;
+    @Autowired
+    private AclCache aclCache;
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            aclService.deleteAcl(invalidated, true);
+            aclService.deleteAcl(untouched, true);
+        });
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void notificationFromAnotherNode_ShouldEvictOnlyTheNotifiedAcl() {
+        // Listening evicts everything once, so the ACLs are only cached after that
+        await().atMost(Duration.ofSeconds(10)).until(cacheInvalidationBus::isListening);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            aclService.createAcl(invalidated);
+            aclService.createAcl(untouched);
+        });
+        assertThat(aclCache.getFromCache(invalidated)).isNotNull();
+
+        jdbcTemplate.queryForObject("SELECT pg_notify('cache_invalidation', ?)", String.class,
+                "other-node acl\n" + invalidated.getIdentifier());
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> aclCache.getFromCache(invalidated) == null);
+        assertThat(aclCache.getFromCache(untouched)).isNotNull();
+    }
+}
@@ -0,0 +1,117 @@
+package tyler.server.integration.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tyler.server.cache.CacheInvalidationBus;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SecondLevelCacheTest extends BaseResourceTest {
+    @Autowired
+    private PriorityRepository priorityRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private final Priority priority = Priority.builder()
+            .name("HIGH")
+            .xp((byte) 3)
+            .build();
+
+    private User user;
+    private Statistics statistics;
+    private Cache cache;
+
+    @BeforeAll
+    void setUp() {
+        priorityRepository.save(priority);
+        user = userRepository.save(User.builder()
+                .username("cached")
+                .passwordHash(passwordEncoder.encode("test"))
+                .daysOff(Set.of())
+                .build());
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        cache = sessionFactory.getCache();
+    }
+
+    @BeforeEach
+    void clearCaches() {
+        // The listener empties the caches once it has started, which would drop what a test has just cached
+        await().atMost(Duration.ofSeconds(10)).until(cacheInvalidationBus::isListening);
+        cache.evictAllRegions();
+        statistics.clear();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        userRepository.delete(user);
+        priorityRepository.delete(priority);
+    }
+
+    @Test
+    void findAllPriorities_ShouldBeAnsweredFromTheQueryCache_AfterTheFirstCall() {
+        priorityRepository.findAllPriorities();
+        priorityRepository.findAllPriorities();
+
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllPriorities_ShouldQueryAgain_AfterAPriorityChanged() {
+        priorityRepository.findAllPriorities();
+        Priority other = priorityRepository.save(Priority.builder().name("LOW").xp((byte) 1).build());
+
+        assertThat(priorityRepository.findAllPriorities()).extracting(Priority::getName).contains("LOW");
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+        priorityRepository.delete(other);
+    }
+
+    @Test
+    void findByUsername_ShouldNotHitTheDatabase_WhenTheUserIsCached() {
+        userRepository.findByUsername(user.getUsername());
+        long executed = statistics.getPrepareStatementCount();
+
+        assertThat(userRepository.findByUsername(user.getUsername())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(executed);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount()).isPositive();
+    }
+
+    @Test
+    void notificationFromAnotherNode_ShouldEvictTheChangedUser() {
+        userRepository.findByUsername(user.getUsername());
+        assertThat(cache.containsEntity(User.class, user.getId())).isTrue();
+
+        jdbcTemplate.queryForObject("SELECT pg_notify('cache_invalidation', ?)", String.class,
+                "other-node " + User.CACHE_REGION + "\n" + user.getId());
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> !cache.containsEntity(User.class, user.getId()));
+    }
+}
@@ -0,0 +1,80 @@
+package tyler.server.integration.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tyler.server.integration.resource.BaseResourceTest;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations into a schema of its own, so that rows can be written before V11 adds the change sequences.
+ */
+class ChangeSequenceMigrationTest extends BaseResourceTest {
+    private static final String SCHEMA = "change_seq_migration";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterAll
+    void dropSchema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void v11_ShouldNumberTheExistingTasksOfEachUser_AndContinueTheUsersSequences() {
+        migrateTo("10");
+        insertUser(1, "alice");
+        insertUser(2, "bob");
+        insertUser(3, "carol");
+        insertTask(30, 1L);
+        insertTask(10, 1L);
+        insertTask(20, 1L);
+        insertTask(15, 2L);
+        insertTask(40, null);
+
+        migrateTo("11");
+
+        assertThat(changeSeqs("SELECT id, change_seq FROM " + SCHEMA + ".task"))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(10L, 1L, 20L, 2L, 30L, 3L, 15L, 1L, 40L, 0L));
+        assertThat(changeSeqs("SELECT id, change_seq FROM " + SCHEMA + ".app_user"))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(1L, 3L, 2L, 1L, 3L, 0L));
+    }
+
+    private void migrateTo(String version) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .target(version)
+                .load()
+                .migrate();
+    }
+
+    private void insertUser(long id, String username) {
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + ".app_user (id, username, password_hash, current_xp, daily_xp_quota, "
+                + "current_streak, days_off_per_week) VALUES (?, ?, 'hash', 0, 5, 0, 2)", id, username);
+    }
+
+    private void insertTask(long id, Long userId) {
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + ".task (id, name, deadline, done, priority_id, remaining_xp, user_id) "
+                + "VALUES (?, 'Task', CURRENT_DATE, false, 1, 1, ?)", id, userId);
+    }
+
+    private Map<Long, Long> changeSeqs(String query) {
+        return jdbcTemplate.query(query, resultSet -> {
+            Map<Long, Long> changeSeqs = new HashMap<>();
+            while (resultSet.next()) {
+                changeSeqs.put(resultSet.getLong(1), resultSet.getLong(2));
+            }
+            return changeSeqs;
+        });
+    }
+}
@@ -1,31 +1,47 @@
 package tyler.server.integration.resource;
 
+import com.zaxxer.hikari.HikariDataSource;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.parsing.Parser;
 import io.restassured.specification.RequestSpecification;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.listener.SingleQueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.containers.PostgreSQLContainer;
 import tyler.server.dto.auth.AuthRequest;
 import tyler.server.repository.PriorityRepository;
 
+import javax.sql.DataSource;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "rate-limit.enabled=false")
 @ActiveProfiles("test")
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Import(BaseResourceTest.QueryCountingDataSourceConfiguration.class)
 public abstract class BaseResourceTest {
     protected static final String TASKS_ENDPOINT = "/tasks";
     protected static final String AUTH_ENDPOINT = "/auth";
 
+    // Requests run on server threads, so statements are counted globally rather than per thread
+    private static final SingleQueryCountHolder queryCounts = new SingleQueryCountHolder();
+
     @ServiceConnection
     public static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16.8-alpine3.20");
 
@@ -63,4 +79,33 @@ public abstract class BaseResourceTest {
                 .contentType(ContentType.JSON)
                 .cookies(cookies);
     }
+
+    protected void resetQueryCount() {
+        queryCounts.clear();
+    }
+
+    protected long queryCount() {
+        return queryCounts.getQueryCountMap().values().stream()
+                .mapToLong(QueryCount::getTotal)
+                .sum();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class QueryCountingDataSourceConfiguration {
+        // Replaces the auto-configured pool, wrapping it before anything (ACL service, Flyway) can see the raw one
+        @Bean
+        DataSource dataSource(JdbcConnectionDetails connectionDetails, Environment environment) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setJdbcUrl(connectionDetails.getJdbcUrl());
+            pool.setUsername(connectionDetails.getUsername());
+            pool.setPassword(connectionDetails.getPassword());
+            pool.setDriverClassName(connectionDetails.getDriverClassName());
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+
+            return ProxyDataSourceBuilder.create(pool)
+                    .name("query-counting")
+                    .countQuery(queryCounts)
+                    .build();
+        }
+    }
 }
\ No newline at end of file
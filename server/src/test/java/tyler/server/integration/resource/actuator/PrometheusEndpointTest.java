@@ -0,0 +1,97 @@
+package tyler.server.integration.resource.actuator;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import tyler.server.entity.User;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.UserRepository;
+
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+
+// Test contexts leave out the metrics export unless asked for it
+@AutoConfigureObservability
+class PrometheusEndpointTest extends BaseResourceTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private Map<String, String> cookies;
+
+    @BeforeAll
+    void setUp() {
+        User user = User.builder()
+                .username("metrics")
+                .passwordHash(passwordEncoder.encode("test"))
+                .daysOff(Set.of())
+                .build();
+        userRepository.save(user);
+        cookies = getAuthCookies(user.getUsername(), "test");
+    }
+
+    @AfterAll
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void prometheus_ShouldExposeDomainAndPoolMetricsWithoutAuthentication_OnTheManagementPort() {
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200);
+
+        given()
+                .port(managementPort)
+                .when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .body(containsString("http_server_requests_seconds_bucket"))
+                .body(containsString("task_service_seconds_count"))
+                .body(containsString("auth_service_seconds_count"))
+                .body(containsString("auth_password_encoder_seconds_count{"))
+                .body(containsString("acl_cache_gets_total{"))
+                .body(containsString("hikaricp_connections_active"))
+                .body(containsString("progress_job_rows_total{"));
+    }
+
+    @Test
+    void prometheus_ShouldNotBeServed_OnTheApplicationPort() {
+        given()
+                .when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(401);
+        givenCookies(cookies)
+                .when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void health_ShouldBeReachableWithoutAuthentication() {
+        given()
+                .port(managementPort)
+                .when()
+                .get("/actuator/health")
+                .then()
+                .statusCode(200)
+                .body(containsString("UP"));
+    }
+}
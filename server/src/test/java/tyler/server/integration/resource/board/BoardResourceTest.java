@@ -0,0 +1,99 @@
+package tyler.server.integration.resource.board;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import tyler.server.entity.Priority;
+import tyler.server.entity.Task;
+import tyler.server.entity.User;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+
+class BoardResourceTest extends BaseResourceTest {
+    private static final String BOARD_ENDPOINT = "/board";
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final Priority priority = Priority.builder()
+            .name("HIGH")
+            .xp((byte) 3)
+            .build();
+
+    private User user;
+    private Map<String, String> cookies;
+
+    @BeforeAll
+    void setUp() {
+        priorityRepository.save(priority);
+        LocalDate sunday = LocalDate.now().with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        user = User.builder()
+                .username("user")
+                .passwordHash(passwordEncoder.encode("test"))
+                .currentXp(4)
+                .dailyXpQuota(10)
+                .currentStreak(0)
+                .daysOffPerWeek((byte) 1)
+                .daysOff(Set.of(sunday))
+                .build();
+        userRepository.save(user);
+
+        Task thisWeek = Task.builder()
+                .name("This week")
+                .dueDate(LocalDate.now())
+                .deadline(sunday.plusWeeks(2))
+                .priority(priority)
+                .build();
+        Task byDeadline = thisWeek.toBuilder().name("By deadline").dueDate(null).deadline(sunday).build();
+        Task later = thisWeek.toBuilder().name("Later").dueDate(sunday.plusDays(1)).build();
+        user.addTask(thisWeek);
+        user.addTask(byDeadline);
+        user.addTask(later);
+        taskRepository.saveAll(List.of(thisWeek, byDeadline, later));
+
+        cookies = getAuthCookies(user.getUsername(), "test");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        user.getTasks().clear();
+        userRepository.save(user);
+        taskRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(user);
+        priorityRepository.delete(priority);
+    }
+
+    @Test
+    void getBoard_ShouldReturnProfileTasksOfTheWeekAndPriorities() {
+        givenCookies(cookies)
+                .when()
+                .get(BOARD_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("profile.username", equalTo("user"))
+                .body("profile.currentXp", equalTo(4))
+                .body("profile.daysOff", hasSize(1))
+                .body("tasks.name", containsInAnyOrder("This week", "By deadline"))
+                .body("priorities.name", contains("HIGH"));
+    }
+}
@@ -0,0 +1,227 @@
+package tyler.server.integration.resource.event;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+import tyler.server.event.ProgressChangedEvent;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventResourceTest extends BaseResourceTest {
+    private static final String EVENTS_ENDPOINT = "/events";
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Value("${local.server.port}")
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final Priority priority = Priority.builder()
+            .name("HIGH")
+            .xp((byte) 3)
+            .build();
+
+    private User alice;
+    private User bob;
+    private Map<String, String> aliceCookies;
+    private Map<String, String> bobCookies;
+    private EventStream aliceEvents;
+    private EventStream bobEvents;
+
+    @BeforeAll
+    void setUp() {
+        priorityRepository.save(priority);
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+        aliceCookies = getAuthCookies("alice", "test");
+        bobCookies = getAuthCookies("bob", "test");
+    }
+
+    @BeforeEach
+    void subscribe() throws Exception {
+        aliceEvents = EventStream.open(http, URI.create("http://localhost:" + port + EVENTS_ENDPOINT), aliceCookies);
+        bobEvents = EventStream.open(http, URI.create("http://localhost:" + port + EVENTS_ENDPOINT), bobCookies);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aliceEvents.close();
+        bobEvents.close();
+        taskRepository.deleteAll();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(alice);
+        userRepository.delete(bob);
+        priorityRepository.delete(priority);
+    }
+
+    @Test
+    void event_ShouldOnlyBeDelivered_OnceTheTransactionCommits() throws InterruptedException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ProgressChangedEvent("alice", 7, 1, null));
+            try {
+                assertThat(aliceEvents.poll(500)).isNull();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(aliceEvents.poll(5000)).startsWith("progress ").contains("\"currentXp\":7");
+    }
+
+    @Test
+    void event_ShouldNeverBeDelivered_WhenTheTransactionRollsBack() throws InterruptedException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ProgressChangedEvent("alice", 7, 1, null));
+            status.setRollbackOnly();
+        });
+        eventPublisher.publishEvent(new ProgressChangedEvent("alice", 8, 1, null));
+
+        // Events arrive in order, so the rolled back one would come before the one published after it
+        assertThat(aliceEvents.poll(5000)).contains("\"currentXp\":8");
+    }
+
+    @Test
+    void event_ShouldOnlyReachTheStreamsOfItsUser() throws InterruptedException {
+        givenCookies(bobCookies)
+                .body(new TaskRequestDTO(null, "Bob's task", null, null, LocalDate.now().plusDays(1), priority.getId()))
+                .when()
+                .post(TASKS_ENDPOINT)
+                .then()
+                .statusCode(201);
+        eventPublisher.publishEvent(new ProgressChangedEvent("alice", 9, 1, null));
+
+        assertThat(bobEvents.poll(5000)).startsWith("task-created ").contains("Bob's task");
+        assertThat(aliceEvents.poll(5000)).startsWith("progress ").contains("\"currentXp\":9");
+    }
+
+    @Test
+    void taskDeleted_ShouldBeAnnounced_ForEverySubtaskAtAnyDepth() throws InterruptedException {
+        long parent = createTask(bobCookies, null, "Parent");
+        long child = createTask(bobCookies, parent, "Child");
+        long grandchild = createTask(bobCookies, child, "Grandchild");
+
+        givenCookies(bobCookies).when().delete(TASKS_ENDPOINT + "/{id}", parent).then().statusCode(204);
+
+        List<String> deleted = new ArrayList<>();
+        String event;
+        while (deleted.size() < 3 && (event = bobEvents.poll(5000)) != null) {
+            if (event.startsWith("task-deleted ")) {
+                deleted.add(event);
+            }
+        }
+        assertThat(deleted).anySatisfy(e -> assertThat(e).contains("\"taskId\":" + grandchild))
+                .anySatisfy(e -> assertThat(e).contains("\"taskId\":" + child))
+                .anySatisfy(e -> assertThat(e).contains("\"taskId\":" + parent));
+    }
+
+    private long createTask(Map<String, String> cookies, Long parentId, String name) {
+        String location = givenCookies(cookies)
+                .body(new TaskRequestDTO(parentId, name, null, null, LocalDate.now().plusDays(1), priority.getId()))
+                .when()
+                .post(TASKS_ENDPOINT)
+                .then()
+                .statusCode(201)
+                .extract().header("Location");
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private User user(String username) {
+        return User.builder()
+                .username(username)
+                .passwordHash(passwordEncoder.encode("test"))
+                .currentXp(0)
+                .dailyXpQuota(10)
+                .currentStreak(0)
+                .daysOffPerWeek((byte) 2)
+                .daysOff(Set.of())
+                .build();
+    }
+
+    /**
+     * Collects the events of one stream as "name data", skipping heartbeats.
+     */
+    private record EventStream(Stream<String> lines, BlockingQueue<String> events) {
+        static EventStream open(HttpClient http, URI uri, Map<String, String> cookies) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Accept", "text/event-stream")
+                    .header("Cookie", cookies.entrySet().stream()
+                            .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+                            .collect(Collectors.joining("; ")))
+                    .build();
+            // The server has registered the stream by the time the response headers arrive
+            HttpResponse<Stream<String>> response = http.send(request, HttpResponse.BodyHandlers.ofLines());
+            assertThat(response.statusCode()).isEqualTo(200);
+            EventStream stream = new EventStream(response.body(), new LinkedBlockingQueue<>());
+            Thread.ofVirtual().start(stream::read);
+            return stream;
+        }
+
+        private void read() {
+            String[] name = {"message"};
+            try {
+                lines.forEach(line -> {
+                    if (line.startsWith("event:")) {
+                        name[0] = line.substring("event:".length());
+                    } else if (line.startsWith("data:")) {
+                        events.add(name[0] + " " + line.substring("data:".length()));
+                        name[0] = "message";
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Closed by the test
+            }
+        }
+
+        String poll(long millis) throws InterruptedException {
+            return events.poll(millis, TimeUnit.MILLISECONDS);
+        }
+
+        void close() {
+            lines.close();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package tyler.server.integration.resource.priority;
+
+import io.restassured.http.ContentType;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import tyler.server.dto.auth.AuthRequest;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// The replica is a second, independent database holding a priority the primary doesn't have, so the
+// response tells which of the two served the read
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PriorityResourceReplicaTest extends BaseResourceTest {
+    private static final String PRIORITIES_ENDPOINT = "/priorities";
+    private static final String REPLICA_ONLY = "Replica only";
+    private static final String NEWCOMER = "newcomer";
+
+    private static final PostgreSQLContainer<?> replicaContainer = new PostgreSQLContainer<>("postgres:16.8-alpine3.20");
+
+    static {
+        replicaContainer.start();
+        Flyway.configure()
+                .dataSource(replicaContainer.getJdbcUrl(), replicaContainer.getUsername(), replicaContainer.getPassword())
+                .load()
+                .migrate();
+        try (Connection connection = DriverManager.getConnection(
+                replicaContainer.getJdbcUrl(), replicaContainer.getUsername(), replicaContainer.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO priority (id, name, xp) VALUES (100, '" + REPLICA_ONLY + "', 1)");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("datasource.replica.urls", replicaContainer::getJdbcUrl);
+        registry.add("datasource.replica.username", replicaContainer::getUsername);
+        registry.add("datasource.replica.password", replicaContainer::getPassword);
+        registry.add("datasource.replica.read-your-writes-margin", () -> "PT2S");
+        registry.add("datasource.replica.probe-interval", () -> "PT0.1S");
+        // Cached results would hide which database answered
+        registry.add("spring.jpa.properties.hibernate.cache.use_query_cache", () -> "false");
+    }
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final Priority priority = Priority.builder()
+            .name("HIGH")
+            .xp((byte) 3)
+            .build();
+
+    private User user;
+    private Map<String, String> cookies;
+
+    @BeforeAll
+    void setUp() {
+        priorityRepository.save(priority);
+
+        user = User.builder()
+                .username("user")
+                .passwordHash(passwordEncoder.encode("test"))
+                .daysOff(Set.of())
+                .build();
+        userRepository.save(user);
+
+        cookies = getAuthCookies(user.getUsername(), "test");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        user.getTasks().clear();
+        userRepository.save(user);
+        taskRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.findByUsername(NEWCOMER).ifPresent(userRepository::delete);
+        userRepository.delete(user);
+        priorityRepository.delete(priority);
+    }
+
+    @Test
+    @Order(1)
+    void getPriorities_ShouldBeServedByTheReplica_OnceItHasCaughtUp() {
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(priorityNames()).contains(REPLICA_ONLY));
+    }
+
+    @Test
+    @Order(2)
+    void getPriorities_ShouldBeServedByThePrimary_RightAfterTheUsersWrite() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> priorityNames().contains(REPLICA_ONLY));
+
+        TaskRequestDTO task = new TaskRequestDTO(null, "Task", null, null, LocalDate.now().plusDays(1), priority.getId());
+        givenCookies(cookies).body(task).when().post(TASKS_ENDPOINT).then().statusCode(201);
+
+        assertThat(priorityNames()).containsExactly(priority.getName());
+    }
+
+    @Test
+    @Order(3)
+    void getTasks_ShouldFindTheTaskAndItsAcl_RightAfterTheUsersWrite() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> priorityNames().contains(REPLICA_ONLY));
+
+        // Neither the task nor its ACL exist on the replica, the permission checks share the read's connection
+        TaskRequestDTO task = new TaskRequestDTO(null, "Fresh task", null, null, LocalDate.now().plusDays(1), priority.getId());
+        givenCookies(cookies).body(task).when().post(TASKS_ENDPOINT).then().statusCode(201);
+
+        List<String> taskNames = givenCookies(cookies)
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getList("name", String.class);
+        assertThat(taskNames).contains("Fresh task");
+    }
+
+    @Test
+    @Order(4)
+    void getPriorities_ShouldBeServedByThePrimary_RightAfterRegistering() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> priorityNames().contains(REPLICA_ONLY));
+
+        // The new user's row is not on the replica yet
+        given().contentType(ContentType.JSON)
+                .body(new AuthRequest(NEWCOMER, "test"))
+                .when()
+                .post(AUTH_ENDPOINT + "/register")
+                .then()
+                .statusCode(200);
+        Map<String, String> newcomerCookies = getAuthCookies(NEWCOMER, "test");
+
+        List<String> names = givenCookies(newcomerCookies)
+                .get(PRIORITIES_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getList("name", String.class);
+        assertThat(names).containsExactly(priority.getName());
+    }
+
+    @Test
+    @Order(5)
+    void getPriorities_ShouldFallBackToThePrimary_WhenTheReplicaIsDown() {
+        replicaContainer.stop();
+
+        assertThat(priorityNames()).containsExactly(priority.getName());
+    }
+
+    private List<String> priorityNames() {
+        return givenCookies(cookies)
+                .get(PRIORITIES_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getList("name", String.class);
+    }
+}
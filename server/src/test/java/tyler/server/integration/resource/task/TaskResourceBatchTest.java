@@ -0,0 +1,257 @@
+package tyler.server.integration.resource.task;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import tyler.server.dto.task.TaskBatchRequestDTO;
+import tyler.server.dto.task.TaskOperationDTO;
+import tyler.server.dto.task.TaskOperationDTO.Type;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.withArgs;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TaskResourceBatchTest extends BaseResourceTest {
+    private static final String BATCH_ENDPOINT = TASKS_ENDPOINT + "/batch";
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Priority high = Priority.builder()
+            .name("HIGH")
+            .xp((byte) 6)
+            .build();
+    private final Priority low = Priority.builder()
+            .name("LOW")
+            .xp((byte) 2)
+            .build();
+
+    private User user;
+    private User otherUser;
+    private Map<String, String> cookies;
+    private Map<String, String> otherCookies;
+
+    @BeforeAll
+    void setUp() {
+        priorityRepository.save(high);
+        priorityRepository.save(low);
+
+        user = User.builder()
+                .username("user")
+                .passwordHash(passwordEncoder.encode("test"))
+                .daysOff(Set.of())
+                .build();
+        userRepository.save(user);
+        otherUser = User.builder()
+                .username("other")
+                .passwordHash(passwordEncoder.encode("test"))
+                .daysOff(Set.of())
+                .build();
+        userRepository.save(otherUser);
+
+        cookies = getAuthCookies(user.getUsername(), "test");
+        otherCookies = getAuthCookies(otherUser.getUsername(), "test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(user);
+        userRepository.delete(otherUser);
+        priorityRepository.delete(high);
+        priorityRepository.delete(low);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void postBatch_taskTree_createsAllTasksReadableByTheOwner() {
+        List<Integer> ids = givenCookies(cookies)
+                .body(new TaskBatchRequestDTO(List.of(
+                        create("parent", null, "Parent task", high),
+                        create(null, "parent", "First subtask", low),
+                        create(null, "parent", "Second subtask", low),
+                        create(null, "parent", "Third subtask", low)
+                )))
+                .when()
+                .post(BATCH_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("index", contains(0, 1, 2, 3))
+                .body("[0].ref", equalTo("parent"))
+                .extract().jsonPath().getList("id");
+
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(4))
+                .body("find { it.id == %s }.subtasks", withArgs(ids.get(0)), equalTo(3))
+                .body("findAll { it.parentId == %s }.name", withArgs(ids.get(0)),
+                        containsInAnyOrder("First subtask", "Second subtask", "Third subtask"));
+
+        givenCookies(otherCookies)
+                .when()
+                .get(TASKS_ENDPOINT + "/" + ids.get(1))
+                .then()
+                .statusCode(403);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void postBatch_updateDoneAndDelete_appliesEveryOperation() {
+        long kept = createTask("Kept task");
+        long finished = createTask("Finished task");
+        long removed = createTask("Removed task");
+
+        givenCookies(cookies)
+                .body(new TaskBatchRequestDTO(List.of(
+                        new TaskOperationDTO(Type.UPDATE, kept, null, null, request(null, "Renamed task", high)),
+                        new TaskOperationDTO(Type.DONE, finished, null, null, null),
+                        new TaskOperationDTO(Type.DELETE, removed, null, null, null)
+                )))
+                .when()
+                .post(BATCH_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("id", contains((int) kept, (int) finished, (int) removed));
+
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(2))
+                .body("find { it.id == %s }.name", withArgs((int) kept), equalTo("Renamed task"))
+                .body("find { it.id == %s }.done", withArgs((int) finished), equalTo(true));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void postBatch_invalidOperations_reportsEachAndAppliesNothing() {
+        long foreign = createTask(otherCookies, "Foreign task");
+
+        givenCookies(cookies)
+                .body(new TaskBatchRequestDTO(List.of(
+                        create("parent", null, "Parent task", low),
+                        create(null, "parent", "Too heavy subtask", high),
+                        new TaskOperationDTO(Type.DELETE, foreign, null, null, null),
+                        new TaskOperationDTO(Type.DONE, foreign + 1000, null, null, null)
+                )))
+                .when()
+                .post(BATCH_ENDPOINT)
+                .then()
+                .statusCode(422)
+                .body("errors.index", contains(1, 2, 3))
+                .body("errors[0].message", equalTo("Subtask xp cannot exceed parent's xp"))
+                .body("errors[1].message", containsString("denied"))
+                .body("errors[2].message", containsString("does not exist"));
+
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(0));
+        givenCookies(otherCookies)
+                .when()
+                .get(TASKS_ENDPOINT + "/" + foreign)
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void postBatch_createThenDeleteTheParent_leavesNeitherTheTaskNorItsAcl() {
+        long parent = createTask("Parent task");
+        long acls = aclCount();
+
+        givenCookies(cookies)
+                .body(new TaskBatchRequestDTO(List.of(
+                        new TaskOperationDTO(Type.CREATE, null, null, null, request(parent, "Doomed subtask", low)),
+                        new TaskOperationDTO(Type.DELETE, parent, null, null, null)
+                )))
+                .when()
+                .post(BATCH_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("index", contains(1))
+                .body("id", contains((int) parent));
+
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(0));
+        assertThat(aclCount()).isEqualTo(acls - 1);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void postBatch_emptyBatch_returnsBadRequest() {
+        givenCookies(cookies)
+                .body(new TaskBatchRequestDTO(List.of()))
+                .when()
+                .post(BATCH_ENDPOINT)
+                .then()
+                .statusCode(400);
+    }
+
+    private long aclCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM acl_object_identity", Long.class);
+    }
+
+    private TaskOperationDTO create(String ref, String parentRef, String name, Priority priority) {
+        return new TaskOperationDTO(Type.CREATE, null, ref, parentRef, request(null, name, priority));
+    }
+
+    private TaskRequestDTO request(Long parentId, String name, Priority priority) {
+        return new TaskRequestDTO(parentId, name, null, null, LocalDate.now().plusDays(1), priority.getId());
+    }
+
+    private long createTask(String name) {
+        return createTask(cookies, name);
+    }
+
+    private long createTask(Map<String, String> cookies, String name) {
+        String location = givenCookies(cookies)
+                .body(request(null, name, high))
+                .when()
+                .post(TASKS_ENDPOINT)
+                .then()
+                .statusCode(201)
+                .extract().header("Location");
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+}
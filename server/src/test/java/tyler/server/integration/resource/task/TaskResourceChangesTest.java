@@ -0,0 +1,159 @@
+package tyler.server.integration.resource.task;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+
+class TaskResourceChangesTest extends BaseResourceTest {
+    private static final String CHANGES_ENDPOINT = TASKS_ENDPOINT + "/changes";
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final Priority priority = Priority.builder()
+            .name("HIGH")
+            .xp((byte) 3)
+            .build();
+
+    private User user;
+    private Map<String, String> cookies;
+
+    @BeforeAll
+    void setUp() {
+        priorityRepository.save(priority);
+
+        user = User.builder()
+                .username("user")
+                .passwordHash(passwordEncoder.encode("test"))
+                .daysOff(Set.of())
+                .build();
+        userRepository.save(user);
+
+        cookies = getAuthCookies(user.getUsername(), "test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        user.getTasks().clear();
+        userRepository.save(user);
+        taskRepository.deleteAll();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(user);
+        priorityRepository.delete(priority);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getChanges_afterEachWrite_returnsOnlyTheDelta() {
+        long first = createTask(null, "First task");
+        long second = createTask(null, "Second task");
+
+        long fullSync = givenCookies(cookies)
+                .when()
+                .get(CHANGES_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("upserts.id", containsInAnyOrder((int) first, (int) second))
+                .body("deleted", empty())
+                .extract().jsonPath().getLong("sequence");
+
+        TaskRequestDTO update = new TaskRequestDTO(null, "First task renamed", null, null, LocalDate.now().plusDays(2), priority.getId());
+        givenCookies(cookies).body(update).when().put(TASKS_ENDPOINT + "/{id}", first).then().statusCode(200);
+
+        long afterUpdate = givenCookies(cookies)
+                .queryParam("since", fullSync)
+                .when()
+                .get(CHANGES_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("upserts", hasSize(1))
+                .body("upserts[0].name", equalTo("First task renamed"))
+                .body("deleted", empty())
+                .extract().jsonPath().getLong("sequence");
+
+        givenCookies(cookies).when().delete(TASKS_ENDPOINT + "/{id}", second).then().statusCode(204);
+
+        givenCookies(cookies)
+                .queryParam("since", afterUpdate)
+                .when()
+                .get(CHANGES_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("upserts", empty())
+                .body("deleted", contains((int) second))
+                .body("sequence", greaterThan((int) afterUpdate));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getChanges_subtaskCreated_includesTouchedParent() {
+        long parent = createTask(null, "Parent task");
+        long since = givenCookies(cookies)
+                .when()
+                .get(CHANGES_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getLong("sequence");
+
+        long subtask = createTask(parent, "Subtask");
+
+        givenCookies(cookies)
+                .queryParam("since", since)
+                .when()
+                .get(CHANGES_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("upserts.id", containsInAnyOrder((int) parent, (int) subtask))
+                .body("upserts.find { it.id == %s }.subtasks".formatted(parent), equalTo(1));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getChanges_negativeSince_returnsBadRequest() {
+        givenCookies(cookies)
+                .queryParam("since", -1)
+                .when()
+                .get(CHANGES_ENDPOINT)
+                .then()
+                .statusCode(400);
+    }
+
+    private long createTask(Long parentId, String name) {
+        TaskRequestDTO task = new TaskRequestDTO(parentId, name, null, null, LocalDate.now().plusDays(1), priority.getId());
+        String location = givenCookies(cookies)
+                .body(task)
+                .when()
+                .post(TASKS_ENDPOINT)
+                .then()
+                .statusCode(201)
+                .extract().header("Location");
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+}
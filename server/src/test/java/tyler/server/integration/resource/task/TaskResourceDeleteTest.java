@@ -5,6 +5,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.acls.domain.BasePermission;
 import org.springframework.security.acls.domain.ObjectIdentityImpl;
 import org.springframework.security.acls.domain.PrincipalSid;
@@ -25,11 +26,15 @@ import tyler.server.repository.PriorityRepository;
 import tyler.server.repository.RefreshTokenRepository;
 import tyler.server.repository.TaskRepository;
 import tyler.server.repository.UserRepository;
+import tyler.server.service.OrphanAclReconciler;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class TaskResourceDeleteTest extends BaseResourceTest {
 
     @Autowired
@@ -45,6 +50,10 @@ class TaskResourceDeleteTest extends BaseResourceTest {
     private JdbcMutableAclService aclService;
     @Autowired
     private PlatformTransactionManager transactionManager;
+    @Autowired
+    private OrphanAclReconciler orphanAclReconciler;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     private Priority priority;
     private User user;
@@ -156,4 +165,53 @@ class TaskResourceDeleteTest extends BaseResourceTest {
         givenCookies(cookies).when().delete(TASKS_ENDPOINT + "/{id}", parent.getId()).then().statusCode(204);
         givenCookies(cookies).when().get(TASKS_ENDPOINT + "/{id}", child.getId()).then().statusCode(404);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "user")
+    void deleteTask_withNestedSubtasks_removesAllAcls() {
+        Task parent = saveTaskWithAcl("Parent Task", null);
+        Task child = saveTaskWithAcl("Child Task", parent);
+        Task grandchild = saveTaskWithAcl("Grandchild Task", child);
+
+        givenCookies(cookies).when().delete(TASKS_ENDPOINT + "/{id}", parent.getId()).then().statusCode(204);
+
+        assertThat(countAcls(parent.getId(), child.getId(), grandchild.getId())).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void purgeOrphans_removesAclsOfMissingTasks() {
+        Task task = saveTaskWithAcl("Kept Task", null);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                aclService.createAcl(new ObjectIdentityImpl(Task.class, 999_999L)));
+
+        orphanAclReconciler.purgeOrphans();
+
+        assertThat(countAcls(999_999L)).isZero();
+        assertThat(countAcls(task.getId())).isOne();
+        assertThat(orphanAclReconciler.orphanCount()).isZero();
+    }
+
+    private Task saveTaskWithAcl(String name, Task parent) {
+        Task task = Task.builder()
+                .name(name)
+                .deadline(LocalDate.now().plusDays(1))
+                .done(false)
+                .priority(priority)
+                .user(user)
+                .build();
+        user.addTask(task);
+        if (parent != null) {
+            parent.addSubtask(task);
+        }
+        task = taskRepository.save(task);
+        createAclForTask(task);
+        return task;
+    }
+
+    private long countAcls(Long... taskIds) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM acl_object_identity WHERE object_id_identity = ANY (?::varchar[])",
+                Long.class, (Object) Arrays.stream(taskIds).map(String::valueOf).toArray(String[]::new));
+    }
+}
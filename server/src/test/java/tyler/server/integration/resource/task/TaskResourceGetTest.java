@@ -1,6 +1,11 @@
 package tyler.server.integration.resource.task;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import org.aspectj.runtime.internal.Conversions;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -24,14 +29,17 @@ import tyler.server.entity.User;
 import tyler.server.integration.resource.BaseResourceTest;
 import tyler.server.repository.PriorityRepository;
 import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.TaskListRow;
 import tyler.server.repository.TaskRepository;
 import tyler.server.repository.UserRepository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 
 class TaskResourceGetTest extends BaseResourceTest {
@@ -49,6 +57,10 @@ class TaskResourceGetTest extends BaseResourceTest {
     private JdbcMutableAclService aclService;
     @Autowired
     private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
 
     private final Priority priority = Priority.builder()
             .name("HIGH")
@@ -119,6 +131,46 @@ class TaskResourceGetTest extends BaseResourceTest {
                 .body("name", hasItems("Task 1", "Task 2"));
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void getTasks_manyTasksWithSubtasks_queryCountDoesNotGrowWithTasks() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Task task = Task.builder()
+                    .name("Parent " + i)
+                    .deadline(LocalDate.now().plusDays(1))
+                    .priority(priority)
+                    .build();
+            Task subtask = task.toBuilder().name("Subtask " + i).subtasks(new ArrayList<>()).build();
+            task.addSubtask(subtask);
+            user.addTask(task);
+            user.addTask(subtask);
+            tasks.add(task);
+            tasks.add(subtask);
+        }
+        taskRepository.saveAll(tasks);
+        tasks.forEach(task -> createAcl(task, user));
+
+        // The first request fills the ACL cache, the assertion covers the steady state
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200);
+
+        resetQueryCount();
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("$", hasSize(20))
+                .body("subtasks", hasItem(1));
+
+        // The user's change sequence for the ETag, then the task rows with their subtask counts in one query
+        assertThat(queryCount()).isEqualTo(2);
+    }
+
     @Test
     @WithMockUser(username = "user")
     void getTaskById_validId_returnsTask() {
@@ -149,6 +201,81 @@ class TaskResourceGetTest extends BaseResourceTest {
                 .body("done", equalTo(task.isDone()));
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void getTaskById_matchingETag_returnsNotModifiedUntilTaskChanges() {
+        Task task = Task.builder()
+                .name("Cached Task")
+                .deadline(LocalDate.now().plusDays(1))
+                .priority(priority)
+                .user(user)
+                .build();
+        user.addTask(task);
+        task = taskRepository.save(task);
+        createAcl(task, user);
+
+        String etag = givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT + "/{id}", task.getId())
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertThat(etag).isNotBlank();
+
+        givenCookies(cookies)
+                .header("If-None-Match", etag)
+                .when()
+                .get(TASKS_ENDPOINT + "/{id}", task.getId())
+                .then()
+                .statusCode(304);
+
+        task.setName("Renamed Cached Task");
+        taskRepository.save(task);
+
+        givenCookies(cookies)
+                .header("If-None-Match", etag)
+                .when()
+                .get(TASKS_ENDPOINT + "/{id}", task.getId())
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Renamed Cached Task"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getTasks_matchingETag_returnsNotModifiedUntilATaskIsAdded() {
+        String etag = givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        givenCookies(cookies)
+                .header("If-None-Match", etag)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(304);
+
+        Task task = Task.builder()
+                .name("New Task")
+                .deadline(LocalDate.now().plusDays(1))
+                .priority(priority)
+                .build();
+        user.addTask(task);
+        taskRepository.save(task);
+        createAcl(task, user);
+
+        givenCookies(cookies)
+                .header("If-None-Match", etag)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("$", hasSize(1));
+    }
+
     @Test
     @WithMockUser(username = "user")
     void getTaskById_nonExistentId_returnsNotFound() {
@@ -159,6 +286,81 @@ class TaskResourceGetTest extends BaseResourceTest {
                 .statusCode(404);
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void getRequests_ShouldNeitherFlushNorDirtyCheck() {
+        Task task = Task.builder()
+                .name("Task")
+                .deadline(LocalDate.now().plusDays(1))
+                .priority(priority)
+                .build();
+        user.addTask(task);
+        taskRepository.save(task);
+        createAcl(task, user);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        givenCookies(cookies).when().get(TASKS_ENDPOINT).then().statusCode(200).body("$", hasSize(1));
+        givenCookies(cookies).when().get(TASKS_ENDPOINT + "/{id}", task.getId()).then().statusCode(200);
+        givenCookies(cookies).when().get(TASKS_ENDPOINT + "/changes").then().statusCode(200);
+        givenCookies(cookies).when().get("/priorities").then().statusCode(200);
+        givenCookies(cookies).when().get("/users/me").then().statusCode(200);
+
+        assertThat(statistics.getFlushCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getTasks_ShouldStreamRowsWithoutLoadingTaskEntities() {
+        Task parent = Task.builder()
+                .name("Parent")
+                .deadline(LocalDate.now().plusDays(1))
+                .priority(priority)
+                .build();
+        Task subtask = parent.toBuilder().name("Subtask").parent(parent).build();
+        user.addTask(parent);
+        user.addTask(subtask);
+        taskRepository.saveAll(List.of(parent, subtask));
+        createAcl(parent, user);
+        createAcl(subtask, user);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .contentType("application/json")
+                .body("$", hasSize(2))
+                .body("find { it.name == 'Parent' }.subtasks", equalTo(1))
+                .body("find { it.name == 'Subtask' }.parentId", equalTo(Conversions.intValue(parent.getId())));
+
+        assertThat(statistics.getEntityStatistics(Task.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void streamAllTasks_ShouldNotLoadTasks_EvenInAReadWriteTransaction() {
+        Task task = Task.builder()
+                .name("Task")
+                .deadline(LocalDate.now().plusDays(1))
+                .priority(priority)
+                .build();
+        user.addTask(task);
+        taskRepository.save(task);
+        createAcl(task, user);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<TaskListRow> rows = taskRepository.streamAllTasks().toList();
+            Session session = entityManager.unwrap(Session.class);
+
+            assertThat(rows).extracting(TaskListRow::id).containsExactly(task.getId());
+            assertThat(session.getStatistics().getEntityCount()).isZero();
+        });
+    }
+
     private void createAcl(Task task, User user) {
         TransactionTemplate tt = new TransactionTemplate(transactionManager);
         tt.execute(new TransactionCallbackWithoutResult() {
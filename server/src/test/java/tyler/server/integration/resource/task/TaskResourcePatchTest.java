@@ -4,6 +4,8 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.acls.domain.BasePermission;
 import org.springframework.security.acls.domain.ObjectIdentityImpl;
@@ -27,10 +29,12 @@ import tyler.server.repository.TaskRepository;
 import tyler.server.repository.UserRepository;
 
 import java.time.*;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.StreamSupport;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -122,6 +126,41 @@ class TaskResourcePatchTest extends BaseResourceTest {
         if (done != null) request.body("done", equalTo(done));
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {2, 6})
+    @WithMockUser(username = "user")
+    void patchTaskDone_taskWithSubtasks_staysWithinQueryBudget(int subtasks) {
+        Task task = Task.builder()
+                .name("Parent To Complete")
+                .deadline(LocalDate.now().plusDays(1))
+                .priority(priority)
+                .user(user)
+                .build();
+        for (int i = 0; i < subtasks; i++) {
+            Task subtask = task.toBuilder().name("Subtask " + i).subtasks(new ArrayList<>()).build();
+            task.addSubtask(subtask);
+            user.addTask(subtask);
+        }
+        user.addTask(task);
+        task = taskRepository.save(task);
+        createAclForTask(task);
+
+        // Fills the ACL cache for the task, the assertion covers the steady state
+        verifyTask(task.getId(), null, null, null, false);
+
+        resetQueryCount();
+        givenCookies(cookies)
+                .when()
+                .patch(TASKS_ENDPOINT + "/{id}/done", task.getId())
+                .then()
+                .statusCode(200);
+
+        // Loads the task, the user's days off (user and roles come from the second-level cache), the subtasks and,
+        // for their task-done events, the counts of their own subtasks. Then one batched update of the tasks, the
+        // invalidation of the user on the other nodes and the update of the user, however many subtasks there are.
+        assertThat(queryCount()).isEqualTo(7);
+    }
+
     @Test
     @WithMockUser(username = "user")
     void patchTaskDone_validId_marksTaskAsDone() {
@@ -142,6 +181,28 @@ class TaskResourcePatchTest extends BaseResourceTest {
         verifyTask(task.getId(), null, null, null, true);
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void patchTaskDone_repeatedIdempotencyKey_returnsTheFirstResponse() {
+        Task task = Task.builder()
+                .name("Task To Complete")
+                .deadline(LocalDate.now().plusDays(1))
+                .done(false)
+                .priority(priority)
+                .user(user)
+                .build();
+        user.addTask(task);
+        task = taskRepository.save(task);
+        createAclForTask(task);
+
+        givenCookies(cookies).header("Idempotency-Key", "done-once")
+                .when().patch(TASKS_ENDPOINT + "/{id}/done", task.getId()).then().statusCode(200);
+        // Without the key the repeat would fail with "Task is already marked as done"
+        givenCookies(cookies).header("Idempotency-Key", "done-once")
+                .when().patch(TASKS_ENDPOINT + "/{id}/done", task.getId()).then().statusCode(200);
+        verifyTask(task.getId(), null, null, null, true);
+    }
+
     @Test
     @WithMockUser(username = "user")
     void patchTaskDone_invalidId_returnsNotFound() {
@@ -303,8 +364,9 @@ class TaskResourcePatchTest extends BaseResourceTest {
         verifyTask(child.getId(), null, null, null, true);
         verifyTask(parent.getId(), null, null, null, false);
 
-        List<Task> tasks = taskRepository.findAllTasks();
-        long userTasksCount = tasks.stream().filter(t -> t.getUser().getId().equals(user.getId())).count();
+        long userTasksCount = StreamSupport.stream(taskRepository.findAll().spliterator(), false)
+                .filter(t -> t.getUser().getId().equals(user.getId()))
+                .count();
         assertThat(userTasksCount).isEqualTo(2L);
     }
 }
\ No newline at end of file
@@ -31,6 +31,7 @@ import java.time.LocalDate;
 import java.util.Map;
 import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static tyler.server.Constants.MAX_TASK_DESCRIPTION_LENGTH;
@@ -116,6 +117,35 @@ class TaskResourcePostTest extends BaseResourceTest {
         givenCookies(cookies).body(task).when().post(TASKS_ENDPOINT).then().statusCode(201);
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void postTask_repeatedIdempotencyKey_createsTheTaskOnce() {
+        TaskRequestDTO task = new TaskRequestDTO(null, "Valid Task", null, null, LocalDate.now().plusDays(1), priority.getId());
+        String location = givenCookies(cookies).header("Idempotency-Key", "create-once").body(task)
+                .when().post(TASKS_ENDPOINT)
+                .then().statusCode(201).extract().header("Location");
+
+        givenCookies(cookies).header("Idempotency-Key", "create-once").body(task)
+                .when().post(TASKS_ENDPOINT)
+                .then().statusCode(201)
+                .header("Location", equalTo(location))
+                .header("Idempotency-Replayed", equalTo("true"));
+
+        assertThat(taskRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void postTask_idempotencyKeyReusedForAnotherTask_returnsUnprocessableEntity() {
+        TaskRequestDTO task = new TaskRequestDTO(null, "Valid Task", null, null, LocalDate.now().plusDays(1), priority.getId());
+        givenCookies(cookies).header("Idempotency-Key", "reused").body(task).when().post(TASKS_ENDPOINT).then().statusCode(201);
+
+        TaskRequestDTO other = new TaskRequestDTO(null, "Other Task", null, null, LocalDate.now().plusDays(1), priority.getId());
+        givenCookies(cookies).header("Idempotency-Key", "reused").body(other).when().post(TASKS_ENDPOINT).then().statusCode(422);
+
+        assertThat(taskRepository.count()).isEqualTo(1);
+    }
+
     @Test
     @WithMockUser(username = "user")
     void postTask_emptyName_returnsBadRequest() {
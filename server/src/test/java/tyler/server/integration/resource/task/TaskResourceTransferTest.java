@@ -0,0 +1,266 @@
+package tyler.server.integration.resource.task;
+
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TaskResourceTransferTest extends BaseResourceTest {
+    private static final String EXPORT_ENDPOINT = TASKS_ENDPOINT + "/export";
+    private static final String IMPORT_ENDPOINT = TASKS_ENDPOINT + "/import";
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final Priority priority = Priority.builder()
+            .name("HIGH")
+            .xp((byte) 6)
+            .build();
+    private final Priority low = Priority.builder()
+            .name("LOW")
+            .xp((byte) 1)
+            .build();
+
+    private User user;
+    private User otherUser;
+    private Map<String, String> cookies;
+    private Map<String, String> otherCookies;
+
+    @BeforeAll
+    void setUp() {
+        priorityRepository.save(priority);
+        priorityRepository.save(low);
+
+        user = User.builder()
+                .username("user")
+                .passwordHash(passwordEncoder.encode("test"))
+                .daysOff(Set.of())
+                .build();
+        userRepository.save(user);
+        otherUser = User.builder()
+                .username("other")
+                .passwordHash(passwordEncoder.encode("test"))
+                .daysOff(Set.of())
+                .build();
+        userRepository.save(otherUser);
+
+        cookies = getAuthCookies(user.getUsername(), "test");
+        otherCookies = getAuthCookies(otherUser.getUsername(), "test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(user);
+        userRepository.delete(otherUser);
+        priorityRepository.delete(priority);
+        priorityRepository.delete(low);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void exportThenImport_copiesTheTaskTreeToAnotherAccount() {
+        long parent = createTask(null, "Parent task", priority);
+        createTask(parent, "First subtask", low);
+        createTask(parent, "Second subtask", low);
+
+        String export = givenCookies(cookies)
+                .when()
+                .get(EXPORT_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .contentType(MediaType.APPLICATION_NDJSON_VALUE)
+                .extract().asString();
+        assertThat(export.lines()).hasSize(3).allSatisfy(line -> assertThat(line).startsWith("{\"id\":"));
+
+        givenNdjson(otherCookies, export)
+                .when()
+                .post(IMPORT_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(3));
+
+        givenCookies(otherCookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(3))
+                .body("id", not(hasItem((int) parent)))
+                .body("find { it.name == 'Parent task' }.subtasks", equalTo(2))
+                .body("findAll { it.parentId != null }.name", containsInAnyOrder("First subtask", "Second subtask"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void importTasks_subtaskBeforeItsParent_linksThem() {
+        String deadline = LocalDate.now().plusDays(3).toString();
+        String ndjson = """
+                {"id":2,"parentId":1,"name":"Subtask","deadline":"%s","priorityId":%d,"remainingXp":1,"done":false}
+                {"id":1,"name":"Parent","deadline":"%s","priorityId":%d,"remainingXp":6,"done":false}
+                """.formatted(deadline, priority.getId(), deadline, priority.getId());
+
+        givenNdjson(cookies, ndjson)
+                .when()
+                .post(IMPORT_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(2));
+
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("find { it.name == 'Parent' }.subtasks", equalTo(1));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void importTasks_invalidLine_importsNothing() {
+        String deadline = LocalDate.now().plusDays(3).toString();
+        String ndjson = """
+                {"id":1,"name":"Valid task","deadline":"%s","priorityId":%d,"remainingXp":6,"done":false}
+                {"id":2,"name":"","deadline":"%s","priorityId":%d,"remainingXp":6,"done":false}
+                """.formatted(deadline, priority.getId(), deadline, priority.getId());
+
+        givenNdjson(cookies, ndjson)
+                .when()
+                .post(IMPORT_ENDPOINT)
+                .then()
+                .statusCode(400)
+                .body("detail", startsWith("Line 2"));
+
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(0));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void importTasks_parentCycle_returnsBadRequest() {
+        String deadline = LocalDate.now().plusDays(3).toString();
+        String ndjson = """
+                {"id":1,"parentId":2,"name":"First","deadline":"%s","priorityId":%d,"remainingXp":1,"done":false}
+                {"id":2,"parentId":1,"name":"Second","deadline":"%s","priorityId":%d,"remainingXp":1,"done":false}
+                """.formatted(deadline, priority.getId(), deadline, priority.getId());
+
+        givenNdjson(cookies, ndjson)
+                .when()
+                .post(IMPORT_ENDPOINT)
+                .then()
+                .statusCode(400)
+                .body("detail", containsString("own ancestor"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void importTasks_subtaskDueAfterItsParent_returnsBadRequestWithTheLine() {
+        String ndjson = """
+                {"id":1,"name":"Parent","dueDate":"%s","deadline":"%s","priorityId":%d,"remainingXp":6,"done":false}
+                {"id":2,"parentId":1,"name":"Subtask","dueDate":"%s","deadline":"%s","priorityId":%d,"remainingXp":1,"done":false}
+                """.formatted(LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), priority.getId(),
+                LocalDate.now().plusDays(2), LocalDate.now().plusDays(3), low.getId());
+
+        givenNdjson(cookies, ndjson)
+                .when()
+                .post(IMPORT_ENDPOINT)
+                .then()
+                .statusCode(400)
+                .body("detail", equalTo("Line 2: Subtask due date cannot be later than parent's due date"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void importTasks_subtaskDeadlineAfterItsParents_returnsBadRequestWithTheLine() {
+        String ndjson = """
+                {"id":2,"parentId":1,"name":"Subtask","deadline":"%s","priorityId":%d,"remainingXp":1,"done":false}
+                {"id":1,"name":"Parent","deadline":"%s","priorityId":%d,"remainingXp":6,"done":false}
+                """.formatted(LocalDate.now().plusDays(4), low.getId(), LocalDate.now().plusDays(3), priority.getId());
+
+        givenNdjson(cookies, ndjson)
+                .when()
+                .post(IMPORT_ENDPOINT)
+                .then()
+                .statusCode(400)
+                .body("detail", equalTo("Line 1: Deadline cannot be after parent task's deadline"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void importTasks_subtasksWorthMoreThanTheirParent_importsNothing() {
+        String deadline = LocalDate.now().plusDays(3).toString();
+        String ndjson = """
+                {"id":1,"name":"Parent","deadline":"%s","priorityId":%d,"remainingXp":1,"done":false}
+                {"id":2,"parentId":1,"name":"First subtask","deadline":"%s","priorityId":%d,"remainingXp":1,"done":false}
+                {"id":3,"parentId":1,"name":"Second subtask","deadline":"%s","priorityId":%d,"remainingXp":1,"done":false}
+                """.formatted(deadline, priority.getId(), deadline, low.getId(), deadline, low.getId());
+
+        givenNdjson(cookies, ndjson)
+                .when()
+                .post(IMPORT_ENDPOINT)
+                .then()
+                .statusCode(422)
+                .body("detail", equalTo("Line 3: Subtask xp cannot exceed parent's xp"));
+
+        givenCookies(cookies)
+                .when()
+                .get(TASKS_ENDPOINT)
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(0));
+    }
+
+    // RestAssured has no encoder for NDJSON strings, the bytes go out as they are
+    private RequestSpecification givenNdjson(Map<String, String> cookies, String ndjson) {
+        return givenCookies(cookies)
+                .contentType(MediaType.APPLICATION_NDJSON_VALUE)
+                .body(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long createTask(Long parentId, String name, Priority priority) {
+        TaskRequestDTO task = new TaskRequestDTO(parentId, name, null, null, LocalDate.now().plusDays(1), priority.getId());
+        String location = givenCookies(cookies)
+                .body(task)
+                .when()
+                .post(TASKS_ENDPOINT)
+                .then()
+                .statusCode(201)
+                .extract().header("Location");
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+}
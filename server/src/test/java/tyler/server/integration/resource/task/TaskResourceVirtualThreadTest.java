@@ -0,0 +1,117 @@
+package tyler.server.integration.resource.task;
+
+import io.restassured.response.Response;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.User;
+import tyler.server.integration.resource.BaseResourceTest;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.RefreshTokenRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class TaskResourceVirtualThreadTest extends BaseResourceTest {
+    private static final List<String> GUARDED_PACKAGES = List.of(
+            "org.springframework.security.acls", "org.postgresql", "com.zaxxer.hikari", "tyler.server"
+    );
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final Priority priority = Priority.builder()
+            .name("MEDIUM")
+            .xp((byte) 3)
+            .build();
+
+    private User user;
+    private Map<String, String> cookies;
+
+    @BeforeAll
+    void setup() {
+        priorityRepository.save(priority);
+
+        user = User.builder()
+                .username("user")
+                .passwordHash(passwordEncoder.encode("test"))
+                .currentXp(0)
+                .dailyXpQuota(10)
+                .currentStreak(0)
+                .daysOffPerWeek((byte) 2)
+                .daysOff(Set.of())
+                .build();
+        userRepository.save(user);
+
+        cookies = getAuthCookies(user.getUsername(), "test");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        user.getTasks().clear();
+        userRepository.save(user);
+        taskRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(user);
+        priorityRepository.delete(priority);
+    }
+
+    @Test
+    void taskRequests_onVirtualThreads_doNotPinCarrierThreadsInAclOrJdbcCode() {
+        List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinnedEvents::add);
+            recording.startAsync();
+
+            for (int i = 0; i < 5; i++) {
+                TaskRequestDTO task = new TaskRequestDTO(null, "Task " + i, null, null, LocalDate.now().plusDays(1), priority.getId());
+                Response created = givenCookies(cookies).body(task).when().post(TASKS_ENDPOINT);
+                assertThat(created.statusCode()).isEqualTo(201);
+
+                String location = created.header("Location");
+                givenCookies(cookies).when().get(location).then().statusCode(200);
+                givenCookies(cookies).when().patch(location + "/done").then().statusCode(200);
+            }
+            givenCookies(cookies).when().get(TASKS_ENDPOINT).then().statusCode(200);
+
+            recording.stop();
+        }
+
+        assertThat(pinnedEvents)
+                .filteredOn(TaskResourceVirtualThreadTest::pinnedInGuardedCode)
+                .isEmpty();
+    }
+
+    private static boolean pinnedInGuardedCode(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return false;
+        }
+        return event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName())
+                .anyMatch(type -> GUARDED_PACKAGES.stream().anyMatch(type::startsWith));
+    }
+}
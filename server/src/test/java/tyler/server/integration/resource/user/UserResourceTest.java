@@ -72,6 +72,40 @@ class UserResourceTest extends BaseResourceTest {
         userRepository.delete(user);
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void getProfile_matchingETag_returnsNotModifiedUntilProfileChanges() {
+        String etag = givenCookies(cookies)
+                .when()
+                .get("/users/me")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertThat(etag).isNotBlank();
+
+        givenCookies(cookies)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/users/me")
+                .then()
+                .statusCode(304);
+
+        user.setCurrentXp(3);
+        userRepository.save(user);
+
+        String changedETag = givenCookies(cookies)
+                .header("If-None-Match", etag)
+                .when()
+                .get("/users/me")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertThat(changedETag).isNotEqualTo(etag);
+
+        user.setCurrentXp(0);
+        userRepository.save(user);
+    }
+
     @Test
     @WithMockUser(username = "user")
     void setDayOff_alreadyHasDayOff_returnsBadRequest() {
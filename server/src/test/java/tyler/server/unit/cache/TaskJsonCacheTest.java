@@ -0,0 +1,64 @@
+package tyler.server.unit.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import tyler.server.cache.TaskJsonCache;
+import tyler.server.dto.task.TaskResponseDTO;
+import tyler.server.event.TaskChangedEvent;
+import tyler.server.mapper.TaskMapper;
+import tyler.server.repository.TaskListRow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaskJsonCacheTest {
+    private final TaskMapper taskMapper = mock(TaskMapper.class);
+    private final TaskJsonCache cache = new TaskJsonCache(taskMapper, new ObjectMapper(), 100);
+
+    @Test
+    void json_ShouldSerializeOnce_WhileTheTaskIsUnchanged() {
+        TaskListRow task = task(7);
+        when(taskMapper.toResponseDto(any(TaskListRow.class))).thenReturn(response("Task"));
+
+        byte[] first = cache.json(task);
+        byte[] second = cache.json(task);
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first, StandardCharsets.UTF_8)).contains("\"name\":\"Task\"");
+        verify(taskMapper, times(1)).toResponseDto(task);
+    }
+
+    @Test
+    void json_ShouldSerializeAgain_WhenTheChangeSequenceMoved() {
+        when(taskMapper.toResponseDto(any(TaskListRow.class))).thenReturn(response("Before"), response("After"));
+        cache.json(task(7));
+
+        byte[] json = cache.json(task(8));
+
+        assertThat(new String(json, StandardCharsets.UTF_8)).contains("\"name\":\"After\"");
+    }
+
+    @Test
+    void taskChanged_ShouldDropTheCachedJson() {
+        TaskListRow task = task(7);
+        when(taskMapper.toResponseDto(any(TaskListRow.class))).thenReturn(response("Task"));
+        cache.json(task);
+
+        cache.taskChanged(TaskChangedEvent.deleted("user", task.id()));
+        cache.json(task);
+
+        verify(taskMapper, times(2)).toResponseDto(task);
+    }
+
+    private TaskListRow task(long changeSeq) {
+        return new TaskListRow(1L, changeSeq, null, 0, "Task", null, null, LocalDate.now(), (byte) 1, false);
+    }
+
+    private TaskResponseDTO response(String name) {
+        return new TaskResponseDTO(1L, null, 0, name, null, "", "", (byte) 1, false);
+    }
+}
@@ -0,0 +1,99 @@
+package tyler.server.unit.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tyler.server.datasource.ReadYourWritesTracker;
+import tyler.server.datasource.ReplicaSet;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaSetTest {
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection probeConnection;
+    @Mock
+    private Connection readConnection;
+    @Mock
+    private ReadYourWritesTracker tracker;
+
+    private ReplicaSet replicaSet;
+
+    @BeforeEach
+    void setUp() {
+        replicaSet = new ReplicaSet(Map.of("replica-0", replica), tracker, Duration.ofSeconds(5), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void getConnection_ShouldUseTheReplica_WhenTheUserHasNotWrittenRecently() throws SQLException {
+        probeWithLag(200);
+        when(replica.getConnection()).thenReturn(readConnection);
+        when(tracker.millisSinceLastWrite("user")).thenReturn(60_000L);
+
+        assertThat(replicaSet.getConnection("user")).isSameAs(readConnection);
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToThePrimary_WhenTheReplicaMayNotHaveTheUsersLastWrite() throws SQLException {
+        probeWithLag(200);
+        when(tracker.millisSinceLastWrite("user")).thenReturn(1_100L);
+
+        assertThat(replicaSet.getConnection("user")).isNull();
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToThePrimary_WhenTheReplicaLagsTooFarBehind() throws SQLException {
+        probeWithLag(6_000);
+        when(tracker.millisSinceLastWrite(anyString())).thenReturn(Long.MAX_VALUE);
+
+        assertThat(replicaSet.getConnection("user")).isNull();
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToThePrimary_BeforeTheFirstProbe() throws SQLException {
+        when(tracker.millisSinceLastWrite(anyString())).thenReturn(Long.MAX_VALUE);
+
+        assertThat(replicaSet.getConnection("user")).isNull();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ShouldTakeTheReplicaOutOfRotation_WhenItCannotConnect() throws SQLException {
+        probeWithLag(0);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(tracker.millisSinceLastWrite(anyString())).thenReturn(Long.MAX_VALUE);
+
+        assertThat(replicaSet.getConnection("user")).isNull();
+        assertThat(replicaSet.getConnection("user")).isNull();
+        // Once by the probe, once by the first read
+        verify(replica, times(2)).getConnection();
+    }
+
+    private void probeWithLag(long lagMillis) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(probeConnection);
+        when(probeConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMillis);
+
+        replicaSet.probe();
+        verify(tracker).forgetOlderThan(Duration.ofSeconds(6));
+    }
+}
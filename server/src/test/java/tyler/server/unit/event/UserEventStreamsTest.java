@@ -0,0 +1,122 @@
+package tyler.server.unit.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tyler.server.event.ProgressChangedEvent;
+import tyler.server.event.UserEventStreams;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class UserEventStreamsTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Queue<RecordingEmitter> opened = new ArrayDeque<>();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void publish_ShouldNotWait_ForAClientThatStoppedReading() throws InterruptedException {
+        UserEventStreams streams = streams(5, 8, true);
+        RecordingEmitter stuck = open(streams, "alice");
+        assertThat(stuck.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        streams.publish(new ProgressChangedEvent("alice", 7, 1, null));
+        streams.heartbeat();
+
+        // Still stuck on the connected comment, the calls above returned without it
+        assertThat(stuck.sent).hasValue(0);
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(stuck.sent).hasValue(3));
+        assertThat(stuck.done.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void stream_ShouldBeClosed_OnceTooManyEventsWaitForIt() throws InterruptedException {
+        UserEventStreams streams = streams(5, 2, true);
+        RecordingEmitter stuck = open(streams, "alice");
+        assertThat(stuck.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 3; i++) {
+            streams.publish(new ProgressChangedEvent("alice", i, 1, null));
+        }
+        release.countDown();
+
+        assertThat(stuck.done.await(5, TimeUnit.SECONDS)).isTrue();
+        // Only the connected comment, the waiting events were dropped with the stream
+        assertThat(stuck.sent).hasValue(1);
+        streams.publish(new ProgressChangedEvent("alice", 9, 1, null));
+        assertThat(stuck.sent).hasValue(1);
+    }
+
+    @Test
+    void open_ShouldCloseTheOldestStream_BeyondTheLimitPerUser() throws InterruptedException {
+        UserEventStreams streams = streams(2, 8, false);
+        RecordingEmitter first = open(streams, "alice");
+        RecordingEmitter second = open(streams, "alice");
+        RecordingEmitter other = open(streams, "bob");
+
+        RecordingEmitter third = open(streams, "alice");
+
+        assertThat(first.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.done.getCount()).isEqualTo(1);
+        assertThat(third.done.getCount()).isEqualTo(1);
+        assertThat(other.done.getCount()).isEqualTo(1);
+    }
+
+    private UserEventStreams streams(int maxPerUser, int maxPending, boolean blocking) {
+        return new UserEventStreams(Duration.ofMinutes(1), maxPerUser, maxPending) {
+            @Override
+            protected SseEmitter newEmitter(Duration timeout) {
+                RecordingEmitter emitter = new RecordingEmitter(blocking ? release : new CountDownLatch(0));
+                opened.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private RecordingEmitter open(UserEventStreams streams, String username) {
+        streams.open(username);
+        return opened.remove();
+    }
+
+    /**
+     * Counts the events it is sent, each send waits for the latch like a client that stopped reading.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicInteger sent = new AtomicInteger();
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            done.countDown();
+        }
+    }
+}
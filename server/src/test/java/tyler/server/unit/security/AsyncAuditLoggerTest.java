@@ -0,0 +1,75 @@
+package tyler.server.unit.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.acls.domain.AccessControlEntryImpl;
+import org.springframework.security.acls.domain.BasePermission;
+import org.springframework.security.acls.domain.PrincipalSid;
+import org.springframework.security.acls.model.AccessControlEntry;
+import org.springframework.security.acls.model.Acl;
+import tyler.server.security.AsyncAuditLogger;
+import tyler.server.security.AsyncAuditLogger.AuditEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AsyncAuditLoggerTest {
+    private final Acl acl = mock(Acl.class);
+
+    @Test
+    void logIfNeeded_ShouldWriteOnlyAuditedDecisions_InOrder() throws InterruptedException {
+        List<AuditEvent> written = new CopyOnWriteArrayList<>();
+        AsyncAuditLogger auditLogger = new AsyncAuditLogger(16, 4, Duration.ofMillis(1), written::addAll);
+        AccessControlEntry auditsSuccess = ace(1L, true, false);
+        AccessControlEntry auditsFailure = ace(2L, false, true);
+
+        auditLogger.logIfNeeded(true, auditsSuccess);
+        auditLogger.logIfNeeded(false, auditsSuccess);
+        auditLogger.logIfNeeded(false, auditsFailure);
+        auditLogger.logIfNeeded(true, auditsFailure);
+        auditLogger.destroy();
+
+        assertThat(written).extracting(AuditEvent::ace).containsExactly(auditsSuccess, auditsFailure);
+        assertThat(written).extracting(AuditEvent::granted).containsExactly(true, false);
+    }
+
+    @Test
+    void logIfNeeded_ShouldDropEvents_InsteadOfBlocking_WhenTheBufferIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncAuditLogger auditLogger = new AsyncAuditLogger(2, 1, Duration.ofMillis(1), events -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        auditLogger.bindTo(registry);
+        AccessControlEntry ace = ace(1L, true, true);
+
+        auditLogger.logIfNeeded(true, ace);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        // The writer is stuck on the first event, two more fit into the buffer
+        auditLogger.logIfNeeded(true, ace);
+        auditLogger.logIfNeeded(true, ace);
+        auditLogger.logIfNeeded(true, ace);
+        release.countDown();
+        auditLogger.destroy();
+
+        assertThat(registry.get("acl.audit.events").tag("result", "dropped").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("acl.audit.events").tag("result", "written").functionCounter().count()).isEqualTo(3);
+    }
+
+    private AccessControlEntry ace(Long id, boolean auditSuccess, boolean auditFailure) {
+        return new AccessControlEntryImpl(id, acl, new PrincipalSid("user"), BasePermission.READ, true,
+                auditSuccess, auditFailure);
+    }
+}
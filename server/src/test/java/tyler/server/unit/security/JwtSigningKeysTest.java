@@ -0,0 +1,77 @@
+package tyler.server.unit.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.*;
+import tyler.server.config.SecurityConfig;
+import tyler.server.security.JwtSigningKeys;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtSigningKeysTest {
+    private final SecurityConfig securityConfig = new SecurityConfig(null);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"RS256", "ES256", "EdDSA"})
+    void encode_ShouldProduceTokenVerifiableByDecoder(String algorithm) throws JOSEException {
+        JwtSigningKeys keys = new JwtSigningKeys(
+                new JWKSet(JwtSigningKeys.generateKey(JWSAlgorithm.parse(algorithm), "key-1")), null);
+
+        String token = encode(securityConfig.jwtEncoder(keys), "user");
+        Jwt jwt = securityConfig.jwtDecoder(keys).decode(token);
+
+        assertThat(jwt.getSubject()).isEqualTo("user");
+        assertThat(jwt.getHeaders()).containsEntry("kid", "key-1").containsEntry("alg", algorithm);
+    }
+
+    @Test
+    void decode_ShouldAcceptTokensOfRetiredKey_AfterRotation() throws JOSEException {
+        JWK oldKey = JwtSigningKeys.generateKey(JWSAlgorithm.RS256, "old");
+        JWK newKey = JwtSigningKeys.generateKey(JWSAlgorithm.ES256, "new");
+        JwtSigningKeys beforeRotation = new JwtSigningKeys(new JWKSet(oldKey), null);
+        JwtSigningKeys afterRotation = new JwtSigningKeys(new JWKSet(List.of(newKey, oldKey.toPublicJWK())), "new");
+
+        String oldToken = encode(securityConfig.jwtEncoder(beforeRotation), "user");
+        String newToken = encode(securityConfig.jwtEncoder(afterRotation), "user");
+        JwtDecoder decoder = securityConfig.jwtDecoder(afterRotation);
+
+        assertThat(decoder.decode(oldToken).getHeaders()).containsEntry("kid", "old");
+        assertThat(decoder.decode(newToken).getHeaders()).containsEntry("kid", "new");
+    }
+
+    @Test
+    void decode_ShouldRejectTokensOfUnknownKey() throws JOSEException {
+        JwtSigningKeys keys = new JwtSigningKeys(new JWKSet(JwtSigningKeys.generateKey(JWSAlgorithm.ES256, "key-1")), null);
+        JwtSigningKeys foreignKeys = new JwtSigningKeys(new JWKSet(JwtSigningKeys.generateKey(JWSAlgorithm.ES256, "key-2")), null);
+
+        String token = encode(securityConfig.jwtEncoder(foreignKeys), "user");
+
+        assertThatThrownBy(() -> securityConfig.jwtDecoder(keys).decode(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void constructor_ShouldRejectUnknownActiveKeyId() throws JOSEException {
+        JWKSet keySet = new JWKSet(JwtSigningKeys.generateKey(JWSAlgorithm.ES256, "key-1"));
+
+        assertThatThrownBy(() -> new JwtSigningKeys(keySet, "missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String encode(JwtEncoder encoder, String subject) {
+        Instant now = Instant.now();
+        return encoder.encode(JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .subject(subject)
+                .issuedAt(now)
+                .expiresAt(now.plus(15, ChronoUnit.MINUTES))
+                .build()
+        )).getTokenValue();
+    }
+}
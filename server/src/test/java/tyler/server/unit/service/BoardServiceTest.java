@@ -0,0 +1,111 @@
+package tyler.server.unit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import tyler.server.dto.board.BoardDto;
+import tyler.server.dto.priority.PriorityResponseDto;
+import tyler.server.dto.task.TaskResponseDTO;
+import tyler.server.dto.user.UserProfileDto;
+import tyler.server.entity.User;
+import tyler.server.mapper.UserMapper;
+import tyler.server.service.BoardService;
+import tyler.server.service.PriorityService;
+import tyler.server.service.TaskService;
+import tyler.server.service.UserService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BoardServiceTest {
+    private final UserService userService = mock(UserService.class);
+    private final TaskService taskService = mock(TaskService.class);
+    private final PriorityService priorityService = mock(PriorityService.class);
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final BoardService boardService = new BoardService(userService, taskService, priorityService, userMapper,
+            mock(PlatformTransactionManager.class));
+
+    private final User user = User.builder().username("testuser").build();
+    private final UserProfileDto profile = new UserProfileDto("testuser", 0, 10, 0, (byte) 2, Set.of(), null);
+    private final TaskResponseDTO task = new TaskResponseDTO(1L, null, 0, "Task", null, "", "2030-01-01", (byte) 1, false);
+    private final PriorityResponseDto priority = new PriorityResponseDto(1L, "HIGH", (byte) 3);
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", null, List.of()));
+        when(userService.getProfile("testuser")).thenReturn(user);
+        when(userMapper.toUserProfileDto(user)).thenReturn(profile);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getBoard_ShouldReadThePartsConcurrently_WithTheCallersSecurityContext() {
+        // Each part waits for the other two, so the board only completes when all three run at the same time
+        CountDownLatch running = new CountDownLatch(3);
+        when(userService.getProfile("testuser")).thenAnswer(invocation -> {
+            awaitOthers(running);
+            return user;
+        });
+        when(taskService.getTasksDueBetween(eq("testuser"), any(LocalDate.class), any(LocalDate.class))).thenAnswer(invocation -> {
+            awaitOthers(running);
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("testuser");
+            return List.of(task);
+        });
+        when(priorityService.findAllPriorities()).thenAnswer(invocation -> {
+            awaitOthers(running);
+            return List.of(priority);
+        });
+
+        BoardDto board = boardService.getBoard("testuser");
+
+        assertThat(board.profile()).isEqualTo(profile);
+        assertThat(board.tasks()).containsExactly(task);
+        assertThat(board.priorities()).containsExactly(priority);
+    }
+
+    @Test
+    void getBoard_ShouldAskForTheTasksOfTheCurrentWeek() {
+        when(taskService.getTasksDueBetween(any(), any(), any())).thenReturn(List.of());
+        when(priorityService.findAllPriorities()).thenReturn(List.of());
+
+        boardService.getBoard("testuser");
+
+        LocalDate today = LocalDate.now();
+        verify(taskService).getTasksDueBetween(eq("testuser"),
+                argThat(monday -> !monday.isAfter(today) && monday.getDayOfWeek().getValue() == 1),
+                argThat(sunday -> !sunday.isBefore(today) && sunday.getDayOfWeek().getValue() == 7));
+    }
+
+    @Test
+    void getBoard_ShouldFailWithThePartsException() {
+        when(userService.getProfile("testuser")).thenThrow(new UsernameNotFoundException("User not found"));
+        when(taskService.getTasksDueBetween(any(), any(), any())).thenReturn(List.of());
+        when(priorityService.findAllPriorities()).thenReturn(List.of());
+
+        assertThatThrownBy(() -> boardService.getBoard("testuser"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private static void awaitOthers(CountDownLatch running) throws InterruptedException {
+        running.countDown();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
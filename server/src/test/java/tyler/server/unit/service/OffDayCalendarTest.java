@@ -0,0 +1,40 @@
+package tyler.server.unit.service;
+
+import org.junit.jupiter.api.Test;
+import tyler.server.service.OffDayCalendar;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffDayCalendarTest {
+    private final LocalDate monday = LocalDate.of(2025, 3, 3);
+
+    @Test
+    void nextAvailableDate_ShouldReturnTheDate_WhenItIsNotOff() {
+        OffDayCalendar calendar = new OffDayCalendar(Set.of(monday));
+
+        assertThat(calendar.nextAvailableDate(monday.plusDays(1))).isEqualTo(monday.plusDays(1));
+        assertThat(calendar.nextAvailableDate(monday.minusDays(1))).isEqualTo(monday.minusDays(1));
+    }
+
+    @Test
+    void nextAvailableDate_ShouldSkipConsecutiveDaysOff() {
+        OffDayCalendar calendar = new OffDayCalendar(List.of(monday.plusDays(2), monday, monday.plusDays(1), monday.plusDays(4)));
+
+        assertThat(calendar.nextAvailableDate(monday)).isEqualTo(monday.plusDays(3));
+        assertThat(calendar.nextAvailableDate(monday.plusDays(1))).isEqualTo(monday.plusDays(3));
+        assertThat(calendar.nextAvailableDate(monday.plusDays(4))).isEqualTo(monday.plusDays(5));
+    }
+
+    @Test
+    void isOffDay_ShouldOnlyMatchDaysOff() {
+        OffDayCalendar calendar = new OffDayCalendar(Set.of(monday, monday.plusDays(3)));
+
+        assertThat(calendar.isOffDay(monday)).isTrue();
+        assertThat(calendar.isOffDay(monday.plusDays(1))).isFalse();
+        assertThat(new OffDayCalendar(Set.of()).isEmpty()).isTrue();
+    }
+}
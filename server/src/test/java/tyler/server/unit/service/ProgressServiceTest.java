@@ -1,25 +1,41 @@
 package tyler.server.unit.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import tyler.server.entity.Priority;
 import tyler.server.entity.Task;
 import tyler.server.entity.User;
+import tyler.server.event.ProgressChangedEvent;
+import tyler.server.event.TaskChangedEvent;
+import tyler.server.mapper.TaskMapper;
+import tyler.server.mapper.TaskMapperImpl;
+import tyler.server.repository.DailyXp;
 import tyler.server.repository.TaskRepository;
 import tyler.server.repository.UserRepository;
 import tyler.server.service.ProgressService;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +44,12 @@ class ProgressServiceTest {
     private TaskRepository taskRepository;
     @Mock
     private UserRepository userRepository;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private TaskMapper taskMapper = new TaskMapperImpl();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ProgressService progressService;
@@ -67,6 +89,17 @@ class ProgressServiceTest {
         user.addTask(task);
     }
 
+    // Answers like the database would from the tasks and subtasks linked in memory
+    private void stubOpenTasksDueOnOffDays() {
+        when(taskRepository.findOpenTasksDueOn(eq(user), anyCollection())).thenAnswer(invocation -> {
+            Collection<LocalDate> days = invocation.getArgument(1);
+            return user.getTasks().stream()
+                    .flatMap(task -> Stream.concat(Stream.of(task), task.getSubtasks().stream()))
+                    .filter(task -> !task.isDone() && task.getDueDate() != null && days.contains(task.getDueDate()))
+                    .toList();
+        });
+    }
+
     @Test
     void handleTaskCompletion_ShouldAddXpToUser() {
         progressService.handleTaskCompletion(task);
@@ -74,6 +107,7 @@ class ProgressServiceTest {
         assertThat(user.getCurrentXp()).isEqualTo(10);
         assertThat(user.getCurrentStreak()).isZero();
         assertThat(user.getLastAchievedDate()).isNull();
+        verify(eventPublisher).publishEvent(new ProgressChangedEvent(null, 10, 0, null));
     }
 
     @Test
@@ -186,6 +220,7 @@ class ProgressServiceTest {
         // Set tomorrow as off day
         user.setDaysOff(Set.of(tomorrow));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         // Task1 should be moved to day after tomorrow
@@ -194,6 +229,81 @@ class ProgressServiceTest {
         assertThat(task2.getDueDate()).isEqualTo(dayAfterTomorrow);
     }
 
+    @Test
+    void relocateTasksForOffDays_ShouldNotRelocateTasksDueOnWorkingDays_WhenTodayIsOff() {
+        LocalDate tomorrow = today.plusDays(1);
+
+        Task task = Task.builder()
+                .id(2L)
+                .name("Task due tomorrow")
+                .dueDate(tomorrow)
+                .deadline(tomorrow.plusDays(2))
+                .priority(priority)
+                .user(user)
+                .build();
+
+        user.addTask(task);
+
+        user.setDaysOff(Set.of(today));
+
+        stubOpenTasksDueOnOffDays();
+        progressService.relocateTasksForOffDays(user);
+
+        assertThat(task.getDueDate()).isEqualTo(tomorrow);
+        verify(eventPublisher, never()).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void relocateTasksForOffDays_ShouldNotQueryTasks_WhenThereAreNoDaysOff() {
+        progressService.relocateTasksForOffDays(user);
+
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void relocateTasksForOffDays_ShouldSpreadTasksOverDays_WhenTheFirstFreeDayIsFull() {
+        LocalDate tomorrow = today.plusDays(1);
+        LocalDate twoDaysLater = today.plusDays(2);
+        LocalDate threeDaysLater = today.plusDays(3);
+
+        Task first = Task.builder().id(2L).name("First").dueDate(tomorrow).deadline(today.plusDays(5))
+                .priority(priority).remainingXp((byte) 60).user(user).build();
+        Task second = Task.builder().id(3L).name("Second").dueDate(tomorrow).deadline(today.plusDays(6))
+                .priority(priority).remainingXp((byte) 60).user(user).build();
+        user.addTask(first);
+        user.addTask(second);
+        user.setDaysOff(Set.of(tomorrow));
+        // 30 xp are already due two days from now, the quota is 100
+        when(taskRepository.findDailyXp(eq(user), any(), any()))
+                .thenReturn(List.of(new DailyXp(twoDaysLater, 30L)));
+
+        stubOpenTasksDueOnOffDays();
+        progressService.relocateTasksForOffDays(user);
+
+        assertThat(first.getDueDate()).isEqualTo(twoDaysLater);
+        assertThat(second.getDueDate()).isEqualTo(threeDaysLater);
+    }
+
+    @Test
+    void relocateTasksForOffDays_ShouldPickTheLeastLoadedDay_WhenNoDayHasRoomLeft() {
+        LocalDate tomorrow = today.plusDays(1);
+
+        Task task = Task.builder().id(2L).name("Heavy").dueDate(tomorrow).deadline(today.plusDays(4))
+                .priority(priority).remainingXp((byte) 10).user(user).build();
+        user.addTask(task);
+        user.setDaysOff(Set.of(tomorrow, today.plusDays(3)));
+        when(taskRepository.findDailyXp(eq(user), any(), any())).thenReturn(List.of(
+                new DailyXp(today.plusDays(2), 120L),
+                new DailyXp(today.plusDays(3), 0L),
+                new DailyXp(today.plusDays(4), 95L)));
+
+        stubOpenTasksDueOnOffDays();
+        progressService.relocateTasksForOffDays(user);
+
+        // The empty day is a day off, so the task goes to the lighter of the two working days
+        assertThat(task.getDueDate()).isEqualTo(today.plusDays(4));
+    }
+
     @Test
     void relocateTasksForOffDays_ShouldNotRelocateTasksBeyondDeadline() {
         LocalDate tomorrow = today.plusDays(1);
@@ -212,6 +322,7 @@ class ProgressServiceTest {
         // Set tomorrow as off day
         user.setDaysOff(Set.of(tomorrow));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         // Task should not be moved since it would exceed deadline
@@ -241,6 +352,7 @@ class ProgressServiceTest {
                 tomorrow.plusDays(1)
         ));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         // Task should be moved to three days later
@@ -266,6 +378,7 @@ class ProgressServiceTest {
         // Set tomorrow as off day
         user.setDaysOff(Set.of(tomorrow));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         // Completed task should not be moved
@@ -290,6 +403,7 @@ class ProgressServiceTest {
 
         user.setDaysOff(Set.of(today, tomorrow));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         assertThat(task.getDueDate()).isEqualTo(dayAfterTomorrow);
@@ -311,6 +425,7 @@ class ProgressServiceTest {
         // Set today as off day
         user.setDaysOff(Set.of(today));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         // Task should stay on today since it's the deadline
@@ -346,6 +461,7 @@ class ProgressServiceTest {
         // Set tomorrow as off day
         user.setDaysOff(Set.of(tomorrow));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         // Both parent and subtask should be moved to day after tomorrow
@@ -382,6 +498,7 @@ class ProgressServiceTest {
         // Set tomorrow as off day
         user.setDaysOff(Set.of(tomorrow));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         // Parent should be moved to day after tomorrow
@@ -420,6 +537,7 @@ class ProgressServiceTest {
         // Set tomorrow as off day
         user.setDaysOff(Set.of(tomorrow));
 
+        stubOpenTasksDueOnOffDays();
         progressService.relocateTasksForOffDays(user);
 
         // Urgent task should stay on tomorrow (deadline day)
@@ -580,6 +698,8 @@ class ProgressServiceTest {
         progressService.penalizeForOverDeadlineTasks();
 
         assertThat(user.getCurrentXp()).isEqualTo(initialXp - 1);
+        assertThat(meterRegistry.get("progress.job.rows").tag("job", "over-deadline-penalty").counter().count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -587,6 +707,7 @@ class ProgressServiceTest {
         Task task = Task.builder()
                 .id(1L)
                 .remainingXp((byte) 1)
+                .user(user)
                 .build();
 
         when(taskRepository.findAllTasksOverDueDate()).thenReturn(List.of(task));
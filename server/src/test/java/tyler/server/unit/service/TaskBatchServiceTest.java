@@ -0,0 +1,224 @@
+package tyler.server.unit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tyler.server.dto.task.TaskBatchRequestDTO;
+import tyler.server.dto.task.TaskOperationDTO;
+import tyler.server.dto.task.TaskOperationDTO.Type;
+import tyler.server.dto.task.TaskOperationResultDTO;
+import tyler.server.dto.task.TaskRequestDTO;
+import tyler.server.entity.Priority;
+import tyler.server.entity.Task;
+import tyler.server.entity.User;
+import tyler.server.exception.BusinessValidationException;
+import tyler.server.exception.TaskBatchException;
+import tyler.server.mapper.TaskMapper;
+import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.TaskAclRepository;
+import tyler.server.repository.TaskRepository;
+import tyler.server.service.TaskBatchService;
+import tyler.server.service.TaskService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBatchServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private PriorityRepository priorityRepository;
+    @Mock
+    private TaskAclRepository taskAclRepository;
+    @Mock
+    private TaskMapper taskMapper;
+    @Mock
+    private TaskService taskService;
+    @InjectMocks
+    private TaskBatchService taskBatchService;
+
+    private final AtomicLong ids = new AtomicLong(100);
+    private Priority priority;
+    private User user;
+    private TaskRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        priority = Priority.builder().id(1L).name("HIGH").xp((byte) 10).build();
+        user = User.builder().id(1L).username("testuser").build();
+        request = new TaskRequestDTO(null, "Batch Task", null, null, tomorrow, 1L);
+    }
+
+    private void stubCreates() {
+        when(priorityRepository.findAllById(any())).thenReturn(List.of(priority));
+        when(taskMapper.toTask(any(TaskRequestDTO.class))).thenAnswer(invocation -> {
+            TaskRequestDTO dto = invocation.getArgument(0);
+            return Task.builder().name(dto.name()).deadline(dto.deadline()).build();
+        });
+    }
+
+    private void stubSaves() {
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            task.setId(ids.getAndIncrement());
+            return task;
+        });
+    }
+
+    private static TaskOperationDTO create(String ref, String parentRef, TaskRequestDTO task) {
+        return new TaskOperationDTO(Type.CREATE, null, ref, parentRef, task);
+    }
+
+    @Test
+    void apply_TaskTree_ShouldCreateAllTasksAndTheirAclsAtOnce() {
+        stubCreates();
+        stubSaves();
+
+        List<TaskOperationResultDTO> results = taskBatchService.apply(user, new TaskBatchRequestDTO(List.of(
+                create("parent", null, request),
+                create(null, "parent", request),
+                create(null, "parent", request)
+        )));
+
+        assertThat(results).extracting(TaskOperationResultDTO::id).containsExactly(100L, 101L, 102L);
+        verify(taskService).prepareNewTask(eq(user), any(Task.class), isNull());
+        verify(taskService, times(2)).prepareNewTask(eq(user), any(Task.class), argThat(parent -> parent != null && parent.getId() == 100L));
+        verify(taskAclRepository).createOwnerAcls("testuser", List.of(100L, 101L, 102L));
+        verify(taskService, times(3)).publishCreated(any(Task.class));
+    }
+
+    @Test
+    void apply_InvalidOperations_ShouldReportEveryFailureAndWriteNothing() {
+        Task foreign = Task.builder().id(5L).name("Foreign").priority(priority).user(user).build();
+        when(taskRepository.findAllWithSubtasksByIdIn(any())).thenReturn(List.of(foreign));
+        when(taskAclRepository.findGrantedMasks(eq("testuser"), any())).thenReturn(Map.of());
+        stubCreates();
+        doThrow(new BusinessValidationException("Subtask xp cannot exceed parent's xp"))
+                .when(taskService).prepareNewTask(eq(user), any(Task.class), any());
+
+        assertThatThrownBy(() -> taskBatchService.apply(user, new TaskBatchRequestDTO(List.of(
+                new TaskOperationDTO(Type.DONE, 999L, null, null, null),
+                new TaskOperationDTO(Type.DELETE, 5L, null, null, null),
+                create("parent", null, request),
+                create(null, "parent", request)
+        ))))
+                .isInstanceOf(TaskBatchException.class)
+                .satisfies(e -> assertThat(((TaskBatchException) e).getErrors())
+                        .extracting("index", "message")
+                        .containsExactly(
+                                tuple(0, "Task with ID 999 does not exist"),
+                                tuple(1, "Access to task with ID 5 is denied"),
+                                tuple(2, "Subtask xp cannot exceed parent's xp"),
+                                tuple(3, "Parent parent could not be created")));
+
+        assertThat(user.getTasks()).isEmpty();
+        verify(taskService, never()).remove(any());
+        verify(taskRepository, never()).save(any());
+        verify(taskAclRepository, never()).createOwnerAcls(any(), any());
+        verify(taskService, never()).publishCreated(any());
+    }
+
+    @Test
+    void apply_OperationOnDeletedTask_ShouldFail() {
+        Task task = Task.builder().id(5L).name("Owned").priority(priority).user(user).build();
+        when(taskRepository.findAllWithSubtasksByIdIn(any())).thenReturn(List.of(task));
+        when(taskAclRepository.findGrantedMasks(eq("testuser"), any())).thenReturn(Map.of(5L, 0b1011));
+
+        assertThatThrownBy(() -> taskBatchService.apply(user, new TaskBatchRequestDTO(List.of(
+                new TaskOperationDTO(Type.DELETE, 5L, null, null, null),
+                new TaskOperationDTO(Type.DONE, 5L, null, null, null)
+        ))))
+                .isInstanceOf(TaskBatchException.class)
+                .satisfies(e -> assertThat(((TaskBatchException) e).getErrors())
+                        .singleElement()
+                        .satisfies(error -> {
+                            assertThat(error.index()).isEqualTo(1);
+                            assertThat(error.message()).isEqualTo("Task with ID 5 was deleted earlier in the batch");
+                        }));
+        verify(taskService).remove(task);
+        verify(taskService, never()).complete(any());
+    }
+
+    @Test
+    void apply_FailedUpdate_ShouldUndoItsChanges() {
+        Task parent = Task.builder().id(6L).name("Parent").priority(priority).user(user).build();
+        Task task = Task.builder().id(5L).name("Owned").priority(priority).remainingXp((byte) 10).user(user).build();
+        user.setCurrentXp(20);
+        when(taskRepository.findAllWithSubtasksByIdIn(any())).thenReturn(List.of(task, parent));
+        when(taskAclRepository.findGrantedMasks(eq("testuser"), any())).thenReturn(Map.of(5L, 0b1011, 6L, 0b1011));
+        doAnswer(invocation -> {
+            task.setName("Renamed");
+            task.setRemainingXp((byte) 0);
+            user.setCurrentXp(10);
+            parent.addSubtask(task);
+            throw new BusinessValidationException("Subtask xp cannot exceed parent's xp");
+        }).when(taskService).applyUpdate(eq(task), any(), any(), any());
+
+        assertThatThrownBy(() -> taskBatchService.apply(user, new TaskBatchRequestDTO(List.of(
+                new TaskOperationDTO(Type.UPDATE, 5L, null, null, request)
+        ))))
+                .isInstanceOf(TaskBatchException.class);
+
+        assertThat(task.getName()).isEqualTo("Owned");
+        assertThat(task.getRemainingXp()).isEqualTo((byte) 10);
+        assertThat(task.getParent()).isNull();
+        assertThat(parent.getSubtasks()).isEmpty();
+        assertThat(user.getCurrentXp()).isEqualTo(20);
+    }
+
+    @Test
+    void apply_CreateUnderATaskDeletedLater_ShouldNeitherReportNorAnnounceTheCreatedTask() {
+        Task parent = Task.builder().id(5L).name("Parent").priority(priority).user(user).build();
+        when(taskRepository.findAllWithSubtasksByIdIn(any())).thenReturn(List.of(parent));
+        when(taskAclRepository.findGrantedMasks(eq("testuser"), any())).thenReturn(Map.of(5L, 0b1011));
+        stubCreates();
+        stubSaves();
+        doAnswer(invocation -> {
+            Task task = invocation.getArgument(1);
+            invocation.<Task>getArgument(2).addSubtask(task);
+            return null;
+        }).when(taskService).prepareNewTask(eq(user), any(Task.class), eq(parent));
+
+        List<TaskOperationResultDTO> results = taskBatchService.apply(user, new TaskBatchRequestDTO(List.of(
+                new TaskOperationDTO(Type.CREATE, null, null, null, new TaskRequestDTO(5L, "Doomed", null, null, LocalDate.now().plusDays(1), 1L)),
+                new TaskOperationDTO(Type.DELETE, 5L, null, null, null)
+        )));
+
+        assertThat(results).extracting(TaskOperationResultDTO::index).containsExactly(1);
+        verify(taskAclRepository).createOwnerAcls("testuser", List.of());
+        verify(taskService, never()).publishCreated(any());
+    }
+
+    @Test
+    void apply_OperationOnAGrandchildOfADeletedTask_ShouldFail() {
+        Task task = Task.builder().id(5L).name("Owned").priority(priority).user(user).build();
+        Task subtask = Task.builder().id(6L).name("Subtask").priority(priority).user(user).build();
+        Task grandchild = Task.builder().id(7L).name("Grandchild").priority(priority).user(user).build();
+        task.addSubtask(subtask);
+        subtask.addSubtask(grandchild);
+        when(taskRepository.findAllWithSubtasksByIdIn(any())).thenReturn(List.of(task, grandchild));
+        when(taskAclRepository.findGrantedMasks(eq("testuser"), any())).thenReturn(Map.of(5L, 0b1011, 7L, 0b1011));
+
+        assertThatThrownBy(() -> taskBatchService.apply(user, new TaskBatchRequestDTO(List.of(
+                new TaskOperationDTO(Type.DELETE, 5L, null, null, null),
+                new TaskOperationDTO(Type.DONE, 7L, null, null, null)
+        ))))
+                .isInstanceOf(TaskBatchException.class)
+                .satisfies(e -> assertThat(((TaskBatchException) e).getErrors())
+                        .extracting("index", "message")
+                        .containsExactly(tuple(1, "Task with ID 7 was deleted earlier in the batch")));
+        verify(taskService, never()).complete(any());
+    }
+}
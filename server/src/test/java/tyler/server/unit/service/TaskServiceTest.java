@@ -4,9 +4,13 @@ import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.acls.domain.BasePermission;
 import org.springframework.security.acls.domain.PrincipalSid;
 import org.springframework.security.acls.jdbc.JdbcMutableAclService;
@@ -14,22 +18,32 @@ import org.springframework.security.acls.model.MutableAcl;
 import org.springframework.security.acls.model.ObjectIdentity;
 import org.springframework.security.acls.model.Sid;
 import org.springframework.security.test.context.support.WithMockUser;
+import tyler.server.cache.TaskJsonCache;
 import tyler.server.entity.Priority;
 import tyler.server.entity.Task;
+import tyler.server.event.TaskChangedEvent;
+import tyler.server.dto.task.TaskChangesDTO;
 import tyler.server.dto.task.TaskRequestDTO;
 import tyler.server.dto.task.TaskResponseDTO;
 import tyler.server.mapper.TaskMapper;
 import tyler.server.exception.ResourceNotFoundException;
 import tyler.server.repository.PriorityRepository;
+import tyler.server.repository.TaskAclRepository;
+import tyler.server.repository.TaskListRow;
 import tyler.server.repository.TaskRepository;
+import tyler.server.repository.UserRepository;
 import tyler.server.service.ProgressService;
 import tyler.server.service.TaskService;
 import tyler.server.validation.TaskValidator;
 import tyler.server.entity.User;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -42,13 +56,23 @@ class TaskServiceTest {
     @Mock
     private PriorityRepository priorityRepository;
     @Mock
+    private UserRepository userRepository;
+    @Mock
     private TaskMapper taskMapper;
     @Mock
+    private TaskJsonCache taskJsonCache;
+    @Mock
     private TaskValidator taskValidator;
     @Mock
     private ProgressService progressService;
     @Mock
     private JdbcMutableAclService aclService;
+    @Mock
+    private TaskAclRepository taskAclRepository;
+    @Mock
+    private PermissionEvaluator permissionEvaluator;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private TaskService taskService;
 
@@ -84,14 +108,28 @@ class TaskServiceTest {
 
     @Test
     @WithMockUser(username = "testuser")
-    void getAllTasks_ShouldReturnListOfTaskDTOs() {
-        when(taskRepository.findAllTasks()).thenReturn(List.of(baseTask));
-        when(taskMapper.toResponseDto(any(Task.class))).thenReturn(responseDTO);
+    void writeAllTasks_ShouldWriteTheCachedJsonOfEachTaskAsAnArray() throws IOException {
+        TaskListRow first = new TaskListRow(1L, 1L, null, 0, "First", null, null, tomorrow, (byte) 10, false);
+        TaskListRow second = new TaskListRow(2L, 2L, null, 0, "Second", null, null, tomorrow, (byte) 10, false);
+        when(taskRepository.streamAllTasks()).thenReturn(Stream.of(first, second));
+        when(taskJsonCache.json(first)).thenReturn("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        when(taskJsonCache.json(second)).thenReturn("{\"id\":2}".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskService.writeAllTasks(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"id\":1},{\"id\":2}]");
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void writeAllTasks_ShouldWriteAnEmptyArray_WhenNoTaskIsReadable() throws IOException {
+        when(taskRepository.streamAllTasks()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        var result = taskService.getAllTasks();
+        taskService.writeAllTasks(out);
 
-        assertThat(result).hasSize(1).first().satisfies(task -> assertThat(task.name()).isEqualTo("Valid Task"));
-        verify(taskRepository).findAllTasks();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
     }
 
     @Test
@@ -302,6 +340,31 @@ class TaskServiceTest {
         taskService.updateTask(1L, defaultRequestDTO);
     }
 
+    @Test
+    void getChanges_ShouldReturnUpsertsAndDeletesSinceSequence() {
+        when(userRepository.findChangeSeqByUsername("testuser")).thenReturn(Optional.of(42L));
+        when(taskRepository.findChangedSince("testuser", 40L)).thenReturn(List.of(baseTask));
+        when(taskRepository.findDeletedSince("testuser", 40L)).thenReturn(List.of(7L));
+        when(taskMapper.toResponseDto(baseTask)).thenReturn(responseDTO);
+
+        TaskChangesDTO changes = taskService.getChanges("testuser", 40L);
+
+        assertThat(changes.sequence()).isEqualTo(42L);
+        assertThat(changes.upserts()).containsExactly(responseDTO);
+        assertThat(changes.deleted()).containsExactly(7L);
+    }
+
+    @Test
+    void getChanges_FullSync_ShouldNotLoadTombstones() {
+        when(userRepository.findChangeSeqByUsername("testuser")).thenReturn(Optional.of(3L));
+        when(taskRepository.findChangedSince("testuser", 0L)).thenReturn(List.of());
+
+        TaskChangesDTO changes = taskService.getChanges("testuser", 0L);
+
+        assertThat(changes.deleted()).isEmpty();
+        verify(taskRepository, never()).findDeletedSince(anyString(), anyLong());
+    }
+
     @Test
     @WithMockUser(username = "testuser")
     void markTaskAsDone_ShouldHandleValidAndMissingCases() {
@@ -311,6 +374,9 @@ class TaskServiceTest {
         taskService.markTaskAsDone(1L);
         assertThat(task.isDone()).isTrue();
         verify(progressService).handleTaskCompletion(task);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue()).isEqualTo(new TaskChangedEvent("testuser", TaskChangedEvent.Change.DONE, 1L, null));
 
         when(taskRepository.findById(999L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> taskService.markTaskAsDone(999L)).isInstanceOf(ResourceNotFoundException.class);
@@ -336,7 +402,9 @@ class TaskServiceTest {
     @WithMockUser(username = "testuser")
     void deleteTask_ShouldDeleteIfExists_ElseThrow() {
         when(taskRepository.findById(1L)).thenReturn(Optional.of(baseTask));
+        allowDelete(1L);
         taskService.deleteTask(1L);
+        verify(taskAclRepository).deleteAcls(List.of(1L));
         verify(taskRepository).deleteById(1L);
 
         when(taskRepository.findById(999L)).thenReturn(Optional.empty());
@@ -351,11 +419,33 @@ class TaskServiceTest {
         parent.getSubtasks().add(sub);
 
         when(taskRepository.findById(1L)).thenReturn(Optional.of(parent));
+        allowDelete(1L);
 
         taskService.deleteTask(1L);
         assertThat(parent.getSubtasks()).isEmpty();
     }
 
+    @Test
+    @WithMockUser(username = "testuser")
+    void deleteParentTask_ShouldAnnounceTheDeletionOfTheWholeSubtree() {
+        var parent = baseTask;
+        var sub = baseTask.toBuilder().id(2L).parent(parent).build();
+        parent.getSubtasks().add(sub);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(parent));
+        // The grandchild isn't loaded, only the subtree query knows it
+        when(taskAclRepository.deleteAcls(List.of(1L))).thenReturn(List.of(1L, 2L, 3L));
+        allowDelete(1L);
+
+        taskService.deleteTask(1L);
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).containsExactly(
+                TaskChangedEvent.deleted("testuser", 2L),
+                TaskChangedEvent.deleted("testuser", 3L),
+                TaskChangedEvent.deleted("testuser", 1L));
+    }
+
     @Test
     @WithMockUser(username = "testuser")
     void deleteSubtask_ShouldRemoveFromParent() {
@@ -364,9 +454,23 @@ class TaskServiceTest {
         parent.getSubtasks().add(sub);
 
         when(taskRepository.findById(2L)).thenReturn(Optional.of(sub));
+        allowDelete(2L);
 
         taskService.deleteTask(2L);
         verify(taskRepository).deleteById(2L);
         assertThat(parent.getSubtasks()).doesNotContain(sub);
     }
+
+    @Test
+    void deleteTask_ShouldKeepTaskAndAcl_WhenDeleteIsNotPermitted() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(baseTask));
+
+        assertThatThrownBy(() -> taskService.deleteTask(1L)).isInstanceOf(AccessDeniedException.class);
+        verify(taskAclRepository, never()).deleteAcls(any());
+        verify(taskRepository, never()).deleteById(any());
+    }
+
+    private void allowDelete(Long id) {
+        when(permissionEvaluator.hasPermission(any(), eq(id), eq(Task.class.getName()), eq("delete"))).thenReturn(true);
+    }
 }
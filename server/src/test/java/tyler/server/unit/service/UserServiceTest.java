@@ -6,12 +6,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import tyler.server.entity.User;
+import tyler.server.repository.TaskRepository;
 import tyler.server.repository.UserRepository;
+import tyler.server.security.AuthenticatedUser;
 import tyler.server.service.ProgressService;
 import tyler.server.service.UserService;
 
@@ -29,7 +32,11 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private TaskRepository taskRepository;
+    @Mock
     private ProgressService progressService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserService userService;
@@ -55,6 +62,8 @@ class UserServiceTest {
         UserDetails userDetails = userService.loadUserByUsername("testuser");
 
         assertThat(userDetails).isNotNull();
+        assertThat(userDetails).isInstanceOf(AuthenticatedUser.class);
+        assertThat(((AuthenticatedUser) userDetails).getId()).isEqualTo(1L);
         assertThat(userDetails.getUsername()).isEqualTo("testuser");
         assertThat(userDetails.getPassword()).isEqualTo("hashedPassword123");
         assertThat(userDetails.getAuthorities())
@@ -131,6 +140,22 @@ class UserServiceTest {
         userService.setDayOff(username, dayOff);
 
         assertThat(testUser.getDaysOff()).contains(dayOff);
+        verify(taskRepository).existsByUserAndDeadline(testUser, dayOff);
+    }
+
+    @Test
+    void setDayOff_ShouldThrowException_WhenADeadlineFallsOnTheDay() {
+        String username = "testuser";
+        LocalDate dayOff = LocalDate.now().with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(taskRepository.existsByUserAndDeadline(testUser, dayOff)).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.setDayOff(username, dayOff))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cannot take a day off if you have a deadline on that day");
+        assertThat(testUser.getDaysOff()).doesNotContain(dayOff);
+        verifyNoInteractions(progressService);
     }
 
     @Test
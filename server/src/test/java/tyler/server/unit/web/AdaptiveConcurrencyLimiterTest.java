@@ -0,0 +1,110 @@
+package tyler.server.unit.web;
+
+import org.junit.jupiter.api.Test;
+import tyler.server.web.AdaptiveConcurrencyLimiter;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+    private static final long TARGET = Duration.ofMillis(500).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, Duration.ofNanos(TARGET), 0);
+
+    @Test
+    void tryAcquire_ShouldRejectRequests_BeyondTheLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(FAST, false, 0);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(10);
+    }
+
+    @Test
+    void release_ShouldRaiseTheLimit_WhileItIsUsedAndResponsesAreFast() {
+        acquire(10);
+        // Each fast response adds 1/limit, a bit less than a tenth as the limit grows
+        for (int i = 0; i < 11; i++) {
+            limiter.release(FAST, false, 0);
+            limiter.tryAcquire();
+        }
+
+        assertThat(limiter.limit()).isEqualTo(11);
+    }
+
+    @Test
+    void release_ShouldNotRaiseTheLimit_WhileMostOfItIsUnused() {
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false, 0);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void release_ShouldCutTheLimitOnce_PerBurstOfSlowResponses() {
+        acquire(10);
+
+        limiter.release(SLOW, false, TARGET);
+        limiter.release(SLOW, false, TARGET + 1);
+        limiter.release(SLOW, false, TARGET + 2);
+
+        assertThat(limiter.limit()).isEqualTo(9);
+
+        limiter.release(FAST, true, 2 * TARGET);
+
+        assertThat(limiter.limit()).isEqualTo(8);
+    }
+
+    @Test
+    void release_ShouldKeepTheLimit_WhenAnIdleServerServesAFewSlowExports() {
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(SLOW, false, (2 * i + 1) * TARGET);
+            limiter.release(SLOW, false, (2 * i + 2) * TARGET);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+        acquire(10);
+    }
+
+    @Test
+    void releaseUnmeasured_ShouldOnlyCutTheLimit_WhenOverloaded() {
+        acquire(10);
+        for (int i = 0; i < 9; i++) {
+            limiter.releaseUnmeasured(false, (i + 1) * TARGET);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+
+        limiter.releaseUnmeasured(true, 10 * TARGET);
+
+        assertThat(limiter.limit()).isEqualTo(9);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void release_ShouldNotCutTheLimit_BelowTheMinimum() {
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, true, (i + 1) * TARGET);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    private void acquire(int requests) {
+        for (int i = 0; i < requests; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package tyler.server.unit.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+import tyler.server.web.IdempotencyFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IdempotencyFilter filter = new IdempotencyFilter(new ObjectMapper(), registry, Duration.ofMinutes(1),
+            DataSize.ofKilobytes(64), DataSize.ofBytes(100));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    // Stands in for POST /tasks, every execution creates another task
+    private final FilterChain createTask = (request, response) -> {
+        assertThat(request.getInputStream().readAllBytes()).isNotEmpty();
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        httpResponse.setStatus(201);
+        httpResponse.setHeader("Location", "/tasks/" + executions.incrementAndGet());
+    };
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedRequest_ShouldBeAnsweredFromTheStore_WithoutRunningAgain() throws Exception {
+        MockHttpServletResponse first = send(request("key-1", "{\"name\":\"Task\"}"), createTask);
+        MockHttpServletResponse repeat = send(request("key-1", "{\"name\":\"Task\"}"), createTask);
+
+        assertThat(executions).hasValue(1);
+        assertThat(repeat.getStatus()).isEqualTo(201);
+        assertThat(repeat.getHeader("Location")).isEqualTo(first.getHeader("Location"));
+        assertThat(repeat.getHeader("Idempotency-Replayed")).isEqualTo("true");
+    }
+
+    @Test
+    void sameKey_ShouldBeIndependent_ForDifferentUsers() throws Exception {
+        send(request("key-1", "{}"), createTask);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("other", null, List.of()));
+
+        send(request("key-1", "{}"), createTask);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void reusedKey_ShouldBeRejected_ForADifferentRequest() throws Exception {
+        send(request("key-1", "{\"name\":\"Task\"}"), createTask);
+
+        MockHttpServletResponse response = send(request("key-1", "{\"name\":\"Other\"}"), createTask);
+
+        assertThat(response.getStatus()).isEqualTo(422);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void repeat_ShouldGetConflict_WhileTheFirstRequestIsRunning() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            createTask.doFilter(request, response);
+        };
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            var context = SecurityContextHolder.getContext();
+            Future<MockHttpServletResponse> first = executor.submit(() -> {
+                SecurityContextHolder.setContext(context);
+                return send(request("key-1", "{}"), slow);
+            });
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MockHttpServletResponse repeat = send(request("key-1", "{}"), createTask);
+            release.countDown();
+
+            assertThat(repeat.getStatus()).isEqualTo(409);
+            assertThat(first.get().getStatus()).isEqualTo(201);
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void serverError_ShouldNotBeStored_SoTheRequestCanBeRetried() throws Exception {
+        FilterChain failing = (request, response) -> ((HttpServletResponse) response).setStatus(503);
+        send(request("key-1", "{}"), failing);
+
+        MockHttpServletResponse retry = send(request("key-1", "{}"), createTask);
+
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void oversizedBody_ShouldBeRejected_WithoutRunning() throws Exception {
+        MockHttpServletResponse response = send(request("key-1", "{\"name\":\"" + "x".repeat(100) + "\"}"), createTask);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void requestsWithoutKey_ShouldAlwaysRun() throws Exception {
+        send(request(null, "{}"), createTask);
+        send(request(null, "{}"), createTask);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    private MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/tasks");
+        request.setServletPath("/tasks");
+        if (key != null) {
+            request.addHeader("Idempotency-Key", key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package tyler.server.unit.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tyler.server.web.RateLimitFilter;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper(), registry,
+            2, 0.1, 3, 1, Duration.ofMinutes(1), 100);
+    private final FilterChain ok = (request, response) -> {
+    };
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void login_ShouldBeLimitedPerAddress_WithRetryAfter() throws Exception {
+        assertThat(send("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send("POST", "/auth/login", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("10");
+        assertThat(rejected.getContentType()).isEqualTo("application/problem+json");
+        assertThat(send("POST", "/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(registry.get("http.rate-limit.rejected").tag("limit", "auth").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void signedInRequests_ShouldBeLimitedPerUser_WhateverTheAddress() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, List.of()));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("GET", "/tasks", "10.0.0." + i).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(send("GET", "/tasks", "10.0.0.9").getStatus()).isEqualTo(429);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("other", null, List.of()));
+        assertThat(send("GET", "/tasks", "10.0.0.9").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void refreshAndLogout_ShouldFallUnderTheUserLimit() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertThat(send("POST", "/auth/refresh", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(send("POST", "/auth/logout", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        assertThat(send("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/auth/refresh", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(registry.get("http.rate-limit.rejected").tag("limit", "user").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void actuator_ShouldNeverBeLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(send("GET", "/actuator/health", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, ok);
+        return response;
+    }
+}
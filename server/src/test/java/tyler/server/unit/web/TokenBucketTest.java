@@ -0,0 +1,56 @@
+package tyler.server.unit.web;
+
+import org.junit.jupiter.api.Test;
+import tyler.server.web.TokenBucket;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryTake_ShouldAllowABurstOfTheCapacity_ThenRefillAtTheRate() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertThat(IntStream.range(0, 3).mapToLong(i -> bucket.tryTake(0))).containsOnly(0L);
+        assertThat(bucket.tryTake(0)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryTake(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryTake(SECOND / 2)).isZero();
+        assertThat(bucket.tryTake(SECOND / 2)).isPositive();
+    }
+
+    @Test
+    void tryTake_ShouldNotSaveUpMoreThanTheCapacity_WhileIdle() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        long later = 3600 * SECOND;
+        assertThat(bucket.tryTake(later)).isZero();
+        assertThat(bucket.tryTake(later)).isZero();
+        assertThat(bucket.tryTake(later)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void tryTake_ShouldHandOutEachTokenOnce_ToConcurrentTakers() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 1, 0);
+        AtomicInteger taken = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (bucket.tryTake(0) == 0) {
+                            taken.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+
+        assertThat(taken).hasValue(1000);
+    }
+}